@@ -0,0 +1,179 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion.benchmarks;
+
+import android.graphics.PointF;
+import android.graphics.RectF;
+
+import com.google.android.material.motion.FloatMotionObservable;
+import com.google.android.material.motion.FloatMotionObserver;
+import com.google.android.material.motion.MotionObserver.SimpleMotionObserver;
+import com.google.android.material.motion.ReusedPointF;
+import com.google.android.material.motion.operators.Threshold.ThresholdSide;
+import com.google.android.material.motion.testing.SimulatedMotionSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.android.material.motion.operators.Dedupe.dedupe;
+import static com.google.android.material.motion.operators.LowerBound.floatLowerBound;
+import static com.google.android.material.motion.operators.LowerBound.lowerBound;
+import static com.google.android.material.motion.operators.OffsetBy.floatOffsetBy;
+import static com.google.android.material.motion.operators.OffsetBy.offsetBy;
+import static com.google.android.material.motion.operators.Rewrite.floatRewriteRange;
+import static com.google.android.material.motion.operators.Rewrite.rewrite;
+import static com.google.android.material.motion.operators.Rewrite.rewriteRange;
+import static com.google.android.material.motion.operators.RubberBanded.rubberBanded;
+import static com.google.android.material.motion.operators.ScaledBy.floatScaledBy;
+import static com.google.android.material.motion.operators.ScaledBy.scaledBy;
+import static com.google.android.material.motion.operators.Threshold.threshold;
+import static com.google.android.material.motion.operators.UpperBound.floatUpperBound;
+import static com.google.android.material.motion.operators.UpperBound.upperBound;
+
+/**
+ * Measures the cost of delivering a single event through representative operator chains.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class OperatorBenchmarks {
+
+  private static final int VALUE_COUNT = 64;
+
+  @Param({"false", "true"})
+  public boolean reusePoints;
+
+  /**
+   * Boxed input values, created up front so that the benchmarks do not measure their own boxing.
+   */
+  private final Float[] values = new Float[VALUE_COUNT];
+  private final PointF[] points = new PointF[VALUE_COUNT];
+  private int index;
+
+  private final SimulatedMotionSource<Float> thresholdSource = new SimulatedMotionSource<>();
+  private final SimulatedMotionSource<Float> mapSource = new SimulatedMotionSource<>();
+  private final SimulatedMotionSource<Float> floatMapSource = new SimulatedMotionSource<>();
+  private final SimulatedMotionSource<PointF> pointSource = new SimulatedMotionSource<>();
+
+  private Object lastValue;
+  private float lastFloat;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ReusedPointF.setEnabled(reusePoints);
+
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      values[i] = (float) i;
+      points[i] = new PointF(i * 3f, i * 5f);
+    }
+
+    thresholdSource.getObservable()
+      .compose(dedupe())
+      .compose(threshold(VALUE_COUNT / 2f))
+      .compose(rewrite(
+        ThresholdSide.BELOW, 0f, ThresholdSide.WITHIN, 0.5f, ThresholdSide.ABOVE, 1f))
+      .subscribe(sink);
+
+    mapSource.getObservable()
+      .compose(offsetBy(10f))
+      .compose(scaledBy(2f))
+      .compose(rewriteRange(0f, 100f, 0f, 1f))
+      .compose(upperBound(1f))
+      .compose(lowerBound(0f))
+      .subscribe(sink);
+
+    FloatMotionObservable.from(floatMapSource.getObservable())
+      .compose(floatOffsetBy(10f))
+      .compose(floatScaledBy(2f))
+      .compose(floatRewriteRange(0f, 100f, 0f, 1f))
+      .compose(floatUpperBound(1f))
+      .compose(floatLowerBound(0f))
+      .subscribe(floatSink);
+
+    pointSource.getObservable()
+      .compose(rubberBanded(new RectF(0f, 0f, 100f, 100f), 50f))
+      .subscribe(pointSink);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    ReusedPointF.setEnabled(false);
+  }
+
+  @Benchmark
+  public Object dedupeThresholdRewrite() {
+    thresholdSource.next(nextValue());
+    return lastValue;
+  }
+
+  @Benchmark
+  public Object fusedMapChain() {
+    mapSource.next(nextValue());
+    return lastValue;
+  }
+
+  @Benchmark
+  public float unboxedFloatChain() {
+    floatMapSource.next(nextValue());
+    return lastFloat;
+  }
+
+  @Benchmark
+  public Object rubberBandedPoint() {
+    pointSource.next(points[nextIndex()]);
+    return lastValue;
+  }
+
+  private Float nextValue() {
+    return values[nextIndex()];
+  }
+
+  private int nextIndex() {
+    index = (index + 1) % VALUE_COUNT;
+    return index;
+  }
+
+  private final SimpleMotionObserver<Float> sink = new SimpleMotionObserver<Float>() {
+    @Override
+    public void next(Float value) {
+      lastValue = value;
+    }
+  };
+
+  private final SimpleMotionObserver<PointF> pointSink = new SimpleMotionObserver<PointF>() {
+    @Override
+    public void next(PointF value) {
+      lastValue = value;
+    }
+  };
+
+  private final FloatMotionObserver floatSink = new FloatMotionObserver() {
+    @Override
+    public void next(float value) {
+      lastFloat = value;
+    }
+  };
+}
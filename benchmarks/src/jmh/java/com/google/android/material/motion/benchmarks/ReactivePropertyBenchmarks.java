@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion.benchmarks;
+
+import com.google.android.material.motion.MotionObserver.SimpleMotionObserver;
+import com.google.android.material.motion.ReactiveProperty;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.android.material.motion.operators.Dedupe.dedupe;
+
+/**
+ * Measures the cost of writing a reactive property that fans out to several observers.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ReactivePropertyBenchmarks {
+
+  private static final int VALUE_COUNT = 64;
+
+  @Param({"0", "1", "4", "16"})
+  public int observerCount;
+
+  private final Float[] values = new Float[VALUE_COUNT];
+  private int index;
+
+  private final ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+  private final ReactiveProperty<Float> streamProperty = ReactiveProperty.of(0f);
+
+  private Float lastValue;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      values[i] = (float) i;
+    }
+
+    for (int i = 0; i < observerCount; i++) {
+      property.subscribe(newSink());
+      // Observers of the shared stream go through an operator stage each.
+      streamProperty.getStream().compose(dedupe()).subscribe(newSink());
+    }
+  }
+
+  @Benchmark
+  public Float write() {
+    property.write(nextValue());
+    return lastValue;
+  }
+
+  @Benchmark
+  public Float writeThroughStreams() {
+    streamProperty.write(nextValue());
+    return lastValue;
+  }
+
+  @Benchmark
+  public Float read() {
+    return property.read();
+  }
+
+  private Float nextValue() {
+    index = (index + 1) % VALUE_COUNT;
+    return values[index];
+  }
+
+  private SimpleMotionObserver<Float> newSink() {
+    return new SimpleMotionObserver<Float>() {
+      @Override
+      public void next(Float value) {
+        lastValue = value;
+      }
+    };
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion.benchmarks;
+
+import android.graphics.Color;
+import android.graphics.PointF;
+
+import com.google.android.material.motion.springs.FloatVectorizer;
+import com.google.android.material.motion.springs.LabVectorizer;
+import com.google.android.material.motion.springs.PointFTypeVectorizer;
+import com.google.android.material.motion.springs.RgbVectorizer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of converting values to and from the vectors that springs operate on. Each
+ * benchmark vectorizes a value and composes it back, as a spring does for each frame.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class VectorizerBenchmarks {
+
+  private final FloatVectorizer floatVectorizer = new FloatVectorizer();
+  private final PointFTypeVectorizer pointVectorizer = new PointFTypeVectorizer();
+  private final RgbVectorizer rgbVectorizer = new RgbVectorizer();
+  private final LabVectorizer labVectorizer = new LabVectorizer();
+
+  private final float[] floatVector = new float[floatVectorizer.getVectorLength()];
+  private final float[] pointVector = new float[pointVectorizer.getVectorLength()];
+  private final float[] rgbVector = new float[rgbVectorizer.getVectorLength()];
+  private final float[] labVector = new float[labVectorizer.getVectorLength()];
+
+  private final Float floatValue = 42f;
+  private final PointF pointValue = new PointF(12f, 34f);
+  private final Integer colorValue = Color.argb(255, 66, 133, 244);
+
+  @Benchmark
+  public Float floatRoundTrip() {
+    floatVectorizer.vectorize(floatValue, floatVector);
+    return floatVectorizer.compose(floatVector);
+  }
+
+  @Benchmark
+  public PointF pointRoundTrip() {
+    pointVectorizer.vectorize(pointValue, pointVector);
+    return pointVectorizer.compose(pointVector);
+  }
+
+  @Benchmark
+  public Integer rgbRoundTrip() {
+    rgbVectorizer.vectorize(colorValue, rgbVector);
+    return rgbVectorizer.compose(rgbVector);
+  }
+
+  @Benchmark
+  public Integer labRoundTrip() {
+    labVectorizer.vectorize(colorValue, labVector);
+    return labVectorizer.compose(labVector);
+  }
+}
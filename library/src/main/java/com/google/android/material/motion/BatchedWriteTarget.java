@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+/**
+ * A target that is notified before and after the runtime applies a batch of coalesced property
+ * writes to it.
+ * <p>
+ * When a {@link MotionRuntime} writes in {@link MotionRuntime.WriteMode#COALESCED} mode, all
+ * pending writes for the same target are applied together once per frame. This is an opt-in hook:
+ * the runtime only brackets the writes with these calls and does not change how each property is
+ * set. Stock views invalidate themselves from every property setter. Targets such as custom views
+ * or drawables can implement this interface and defer their own invalidation until
+ * {@link #onEndBatch()}, so that a frame that changes several of their properties invalidates them
+ * once.
+ */
+public interface BatchedWriteTarget {
+
+  /**
+   * Called before the first property write of a batch is applied to this target.
+   */
+  void onBeginBatch();
+
+  /**
+   * Called after the last property write of a batch has been applied to this target.
+   */
+  void onEndBatch();
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import android.graphics.PointF;
+import android.support.annotation.Nullable;
+import android.view.Choreographer;
+import android.view.Choreographer.FrameCallback;
+
+import com.google.android.material.motion.ReactiveProperty.PropertyReactiveProperty;
+
+import java.util.ArrayList;
+
+/**
+ * Records the latest value written to each property and applies all pending writes once per
+ * display frame.
+ * <p>
+ * Pending writes are grouped by target, so all of a view's property changes within a frame are
+ * applied in one pass. Targets that implement {@link BatchedWriteTarget} are notified around their
+ * batch so that they can invalidate once. Other targets are written property by property. The
+ * target of a {@link PropertyReactiveProperty} is its target object, and the target of any other
+ * reactive property is the property itself.
+ * <p>
+ * Pending values are held until the next frame, so points emitted while {@link ReusedPointF} is
+ * enabled are copied when they are recorded. A newer point for a pending property is copied into
+ * the pending copy instead of allocating another one.
+ * <p>
+ * Input latency is recorded when a pending value is applied, so it includes the wait for the
+ * frame.
+ */
+final class CoalescedWrites implements FrameCallback {
+
+  private ArrayList<Object> pendingTargets = new ArrayList<>();
+  private ArrayList<ReactiveProperty<?>> pendingProperties = new ArrayList<>();
+  private ArrayList<Object> pendingValues = new ArrayList<>();
+  private ArrayList<MotionMetrics.Node> pendingLatencies = new ArrayList<>();
+  private long[] pendingInputs = new long[8];
+  private ArrayList<Object> applyingTargets = new ArrayList<>();
+  private ArrayList<ReactiveProperty<?>> applyingProperties = new ArrayList<>();
+  private ArrayList<Object> applyingValues = new ArrayList<>();
+  private ArrayList<MotionMetrics.Node> applyingLatencies = new ArrayList<>();
+  private long[] applyingInputs = new long[8];
+
+  private boolean scheduled;
+
+  /**
+   * Records the value to be written to the property on the next frame, replacing any value that
+   * is already pending for the property.
+   */
+  <T> void write(ReactiveProperty<T> property, T value) {
+    write(property, value, null, MotionMetrics.NO_INPUT);
+  }
+
+  /**
+   * Like {@link #write(ReactiveProperty, Object)}, but records the input latency of the value in
+   * the given node once it is applied.
+   *
+   * @param inputNanos The time of the input event that caused the value, or {@link
+   *     MotionMetrics#NO_INPUT}.
+   */
+  <T> void write(
+    ReactiveProperty<T> property, T value, @Nullable MotionMetrics.Node latency, long inputNanos) {
+    int index = indexOf(property);
+    if (index >= 0) {
+      pendingValues.set(index, retain(pendingValues.get(index), value));
+      pendingLatencies.set(index, latency);
+    } else {
+      Object target = targetOf(property);
+      int insertion = lastIndexOfTarget(target) + 1;
+      if (insertion == 0) {
+        insertion = pendingTargets.size();
+      }
+      insertInput(insertion);
+      pendingTargets.add(insertion, target);
+      pendingProperties.add(insertion, property);
+      pendingValues.add(insertion, ReusedPointF.retainValue(value));
+      pendingLatencies.add(insertion, latency);
+      index = insertion;
+    }
+    pendingInputs[index] = inputNanos;
+
+    if (!scheduled) {
+      scheduled = true;
+      Choreographer.getInstance().postFrameCallback(this);
+    }
+  }
+
+  /**
+   * Drops the value that is pending for the property, if any.
+   */
+  void cancel(ReactiveProperty<?> property) {
+    int index = indexOf(property);
+    if (index >= 0) {
+      System.arraycopy(
+        pendingInputs, index + 1, pendingInputs, index, pendingProperties.size() - index - 1);
+      pendingTargets.remove(index);
+      pendingProperties.remove(index);
+      pendingValues.remove(index);
+      pendingLatencies.remove(index);
+    }
+  }
+
+  /**
+   * Drops all pending writes.
+   */
+  void clear() {
+    pendingTargets.clear();
+    pendingProperties.clear();
+    pendingValues.clear();
+    pendingLatencies.clear();
+  }
+
+  /**
+   * Applies all pending writes immediately.
+   */
+  void flush() {
+    // Swap buffers so that writes made while applying are deferred to the next frame.
+    ArrayList<Object> targets = pendingTargets;
+    ArrayList<ReactiveProperty<?>> properties = pendingProperties;
+    ArrayList<Object> values = pendingValues;
+    ArrayList<MotionMetrics.Node> latencies = pendingLatencies;
+    long[] inputs = pendingInputs;
+    pendingTargets = applyingTargets;
+    pendingProperties = applyingProperties;
+    pendingValues = applyingValues;
+    pendingLatencies = applyingLatencies;
+    pendingInputs = applyingInputs;
+    applyingTargets = targets;
+    applyingProperties = properties;
+    applyingValues = values;
+    applyingLatencies = latencies;
+    applyingInputs = inputs;
+
+    Object batchTarget = null;
+    for (int i = 0, count = properties.size(); i < count; i++) {
+      Object target = targets.get(i);
+      if (target != batchTarget) {
+        endBatch(batchTarget);
+        batchTarget = target;
+        beginBatch(batchTarget);
+      }
+
+      //noinspection unchecked
+      ((ReactiveProperty<Object>) properties.get(i)).write(values.get(i));
+
+      MotionMetrics.Node latency = latencies.get(i);
+      if (latency != null) {
+        MotionMetrics.recordLatency(latency, inputs[i]);
+      }
+    }
+    endBatch(batchTarget);
+
+    targets.clear();
+    properties.clear();
+    values.clear();
+    latencies.clear();
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    scheduled = false;
+    flush();
+  }
+
+  /**
+   * Opens a slot in the pending input times at the given index.
+   */
+  private void insertInput(int index) {
+    int count = pendingProperties.size();
+    if (count == pendingInputs.length) {
+      long[] grown = new long[count * 2];
+      System.arraycopy(pendingInputs, 0, grown, 0, count);
+      pendingInputs = grown;
+    }
+    System.arraycopy(pendingInputs, index, pendingInputs, index + 1, count - index);
+  }
+
+  /**
+   * Retains the value that replaces a pending value. A pending point is always a copy while reuse
+   * is enabled, so it can be updated in place.
+   */
+  private static Object retain(Object pending, Object value) {
+    if (ReusedPointF.isEnabled() && pending instanceof PointF) {
+      return ReusedPointF.retainValue(value, (PointF) pending);
+    }
+    return ReusedPointF.retainValue(value);
+  }
+
+  private int indexOf(ReactiveProperty<?> property) {
+    for (int i = 0, count = pendingProperties.size(); i < count; i++) {
+      if (pendingProperties.get(i) == property) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int lastIndexOfTarget(Object target) {
+    for (int i = pendingTargets.size() - 1; i >= 0; i--) {
+      if (pendingTargets.get(i) == target) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static Object targetOf(ReactiveProperty<?> property) {
+    if (property instanceof PropertyReactiveProperty) {
+      return ((PropertyReactiveProperty<?, ?>) property).target;
+    }
+    return property;
+  }
+
+  private static void beginBatch(Object target) {
+    if (target instanceof BatchedWriteTarget) {
+      ((BatchedWriteTarget) target).onBeginBatch();
+    }
+  }
+
+  private static void endBatch(Object target) {
+    if (target instanceof BatchedWriteTarget) {
+      ((BatchedWriteTarget) target).onEndBatch();
+    }
+  }
+}
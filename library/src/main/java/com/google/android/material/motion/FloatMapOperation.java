@@ -0,0 +1,32 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+/**
+ * A map operation transforms incoming unboxed float values before they are passed downstream.
+ */
+public abstract class FloatMapOperation extends FloatOperation {
+
+  /**
+   * Transforms the given value to another value.
+   */
+  public abstract float transform(float value);
+
+  @Override
+  public final void next(FloatMotionObserver observer, float value) {
+    observer.next(transform(value));
+  }
+}
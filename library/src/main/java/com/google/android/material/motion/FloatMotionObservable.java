@@ -0,0 +1,297 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.android.indefinite.observable.IndefiniteObservable;
+
+/**
+ * A {@link MotionObservable} specialized for unboxed float values.
+ * <p>
+ * Values flowing through a chain of {@link FloatOperation}s are never boxed. Use {@link
+ * #from(MotionObservable)} and {@link #boxed()} to bridge to and from object streams.
+ */
+public class FloatMotionObservable extends IndefiniteObservable<FloatMotionObserver> {
+
+  /**
+   * The number of operator stages between this stream and its source.
+   */
+  private final int depth;
+
+  public FloatMotionObservable(Connector<FloatMotionObserver> connector) {
+    this(connector, 0);
+  }
+
+  FloatMotionObservable(Connector<FloatMotionObserver> connector, int depth) {
+    super(connector);
+    this.depth = depth;
+  }
+
+  /**
+   * Returns the depth of this stream in the stream graph. See {@link MotionObservable#depth()}.
+   */
+  int depth() {
+    return depth;
+  }
+
+  /**
+   * Returns a float stream that unboxes the values of the given stream.
+   */
+  public static FloatMotionObservable from(final MotionObservable<Float> stream) {
+    return new FloatMotionObservable(new Connector<FloatMotionObserver>() {
+
+      @NonNull
+      @Override
+      public Disconnector connect(FloatMotionObserver observer) {
+        final Subscription subscription = stream.subscribe(observer);
+
+        return new Disconnector() {
+
+          @Override
+          public void disconnect() {
+            subscription.unsubscribe();
+          }
+        };
+      }
+    }, stream.depth());
+  }
+
+  /**
+   * Returns a float stream that emits the given property's value and every subsequent write.
+   */
+  public static FloatMotionObservable from(ReactiveProperty<Float> property) {
+    return from(property.getStream());
+  }
+
+  /**
+   * Subscribes to the FloatMotionObservable and ignores all incoming values.
+   */
+  public Subscription subscribe() {
+    return super.subscribe(new FloatMotionObserver() {
+      @Override
+      public void next(float value) {
+      }
+    });
+  }
+
+  /**
+   * Returns an object stream that boxes the values of this stream.
+   */
+  public MotionObservable<Float> boxed() {
+    final FloatMotionObservable upstream = FloatMotionObservable.this;
+
+    return new MotionObservable<>(new Connector<MotionObserver<Float>>() {
+
+      @NonNull
+      @Override
+      public Disconnector connect(final MotionObserver<Float> observer) {
+        final Subscription subscription = upstream.subscribe(new FloatMotionObserver() {
+
+          @Override
+          public void next(float value) {
+            observer.next(value);
+          }
+
+          @Override
+          public void build(MotionBuilder<Float> builder, Float[] values) {
+            observer.build(builder, values);
+          }
+        });
+
+        return new Disconnector() {
+
+          @Override
+          public void disconnect() {
+            subscription.unsubscribe();
+          }
+        };
+      }
+    }, depth());
+  }
+
+  /**
+   * A light-weight operator builder. Applies the given operation to the incoming stream without
+   * boxing.
+   *
+   * @see MotionObservable#compose(Operation)
+   */
+  public FloatMotionObservable compose(final FloatOperation operation) {
+    final FloatMotionObservable upstream = FloatMotionObservable.this;
+
+    return new FloatMotionObservable(new Connector<FloatMotionObserver>() {
+
+      private final MotionMetrics.Stage metrics = new MotionMetrics.Stage(operation);
+      /**
+       * The trace section name of this stage, created on the first event while tracing.
+       */
+      @Nullable
+      private String sectionName;
+
+      private String sectionName() {
+        if (sectionName == null) {
+          sectionName = MotionTrace.sectionName(metrics.name());
+        }
+        return sectionName;
+      }
+
+      @NonNull
+      @Override
+      public Disconnector connect(final FloatMotionObserver observer) {
+        final MotionMetrics.Node stageMetrics = metrics.subscribe();
+
+        operation.preConnect(observer);
+        final Subscription subscription = upstream.subscribe(new FloatMotionObserver() {
+
+          @Override
+          public void next(float value) {
+            if (MotionTrace.active) {
+              String section = sectionName();
+              MotionTrace.beginSection(section);
+              try {
+                measureNext(value);
+              } finally {
+                MotionTrace.endSection(section);
+              }
+            } else {
+              measureNext(value);
+            }
+          }
+
+          private void measureNext(float value) {
+            if (stageMetrics != null && MotionMetrics.enabled) {
+              long token = MotionMetrics.enter();
+              long start = System.nanoTime();
+              operation.next(observer, value);
+              MotionMetrics.exit(stageMetrics, start, token);
+            } else {
+              operation.next(observer, value);
+            }
+          }
+
+          @Override
+          public void build(MotionBuilder<Float> builder, Float[] values) {
+            if (operation instanceof FloatMapOperation) {
+              FloatMapOperation mapOperation = (FloatMapOperation) operation;
+              for (int i = 0; i < values.length; i++) {
+                values[i] = mapOperation.transform(values[i]);
+              }
+              observer.build(builder, values);
+            }
+          }
+        });
+        operation.postConnect(observer);
+
+        return new Disconnector() {
+
+          @Override
+          public void disconnect() {
+            operation.preDisconnect(observer);
+            subscription.unsubscribe();
+            operation.postDisconnect(observer);
+
+            if (stageMetrics != null) {
+              stageMetrics.unsubscribes.incrementAndGet();
+            }
+          }
+        };
+      }
+    }, depth() + 1);
+  }
+
+  /**
+   * Applies the given operation to the incoming stream, leaving the float domain.
+   */
+  public <U> MotionObservable<U> compose(final FloatToObjectOperation<U> operation) {
+    final FloatMotionObservable upstream = FloatMotionObservable.this;
+
+    return new MotionObservable<>(new Connector<MotionObserver<U>>() {
+
+      private final MotionMetrics.Stage metrics = new MotionMetrics.Stage(operation);
+      /**
+       * The trace section name of this stage, created on the first event while tracing.
+       */
+      @Nullable
+      private String sectionName;
+
+      private String sectionName() {
+        if (sectionName == null) {
+          sectionName = MotionTrace.sectionName(metrics.name());
+        }
+        return sectionName;
+      }
+
+      @NonNull
+      @Override
+      public Disconnector connect(final MotionObserver<U> observer) {
+        final MotionMetrics.Node stageMetrics = metrics.subscribe();
+
+        operation.preConnect(observer);
+        final Subscription subscription = upstream.subscribe(new FloatMotionObserver() {
+
+          @Override
+          public void next(float value) {
+            if (MotionTrace.active) {
+              String section = sectionName();
+              MotionTrace.beginSection(section);
+              try {
+                measureNext(value);
+              } finally {
+                MotionTrace.endSection(section);
+              }
+            } else {
+              measureNext(value);
+            }
+          }
+
+          private void measureNext(float value) {
+            if (stageMetrics != null && MotionMetrics.enabled) {
+              long token = MotionMetrics.enter();
+              long start = System.nanoTime();
+              operation.next(observer, value);
+              MotionMetrics.exit(stageMetrics, start, token);
+            } else {
+              operation.next(observer, value);
+            }
+          }
+        });
+        operation.postConnect(observer);
+
+        return new Disconnector() {
+
+          @Override
+          public void disconnect() {
+            operation.preDisconnect(observer);
+            subscription.unsubscribe();
+            operation.postDisconnect(observer);
+
+            if (stageMetrics != null) {
+              stageMetrics.unsubscribes.incrementAndGet();
+            }
+          }
+        };
+      }
+    }, depth() + 1);
+  }
+
+  /**
+   * Applies the given object operation to the boxed values of this stream.
+   */
+  public <U> MotionObservable<U> compose(Operation<Float, U> operation) {
+    return boxed().compose(operation);
+  }
+}
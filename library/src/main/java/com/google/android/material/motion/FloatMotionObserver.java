@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+/**
+ * A {@link MotionObserver} that receives unboxed float values.
+ * <p>
+ * A FloatMotionObserver can be subscribed to a {@code MotionObservable<Float>}, in which case
+ * incoming values are unboxed once before being passed to {@link #next(float)}.
+ */
+public abstract class FloatMotionObserver extends MotionObserver<Float> {
+
+  /**
+   * Receives the next unboxed value.
+   */
+  public abstract void next(float value);
+
+  @Override
+  public final void next(Float value) {
+    next(value.floatValue());
+  }
+
+  /**
+   * Receives the build values of the stream. The compiler casts the values to {@code Float[]}
+   * before this is called, so sources of float streams must build with a {@code Float[]} rather
+   * than an erased {@code Object[]}.
+   */
+  @Override
+  public void build(MotionBuilder<Float> builder, Float[] values) {
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+/**
+ * An operation that transforms unboxed float values into an object stream.
+ *
+ * @param <U> The downstream value type.
+ */
+public abstract class FloatToObjectOperation<U> {
+
+  public void preConnect(MotionObserver<U> observer) {
+  }
+
+  /**
+   * Transforms the incoming value before passing it to the observer, or blocks the value.
+   *
+   * @param value The incoming value.
+   */
+  public abstract void next(MotionObserver<U> observer, float value);
+
+  public void postConnect(MotionObserver<U> observer) {
+  }
+
+  public void preDisconnect(MotionObserver<U> observer) {
+  }
+
+  public void postDisconnect(MotionObserver<U> observer) {
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A single operation that applies a chain of consecutive {@link MapOperation}s and {@link
+ * FilterOperation}s, so that each value crosses one observer boundary instead of one per stage.
+ */
+final class FusedOperation<T, U> extends Operation<T, U> {
+
+  private static final List<String> LIFECYCLE_HOOKS =
+    Arrays.asList("preConnect", "postConnect", "preDisconnect", "postDisconnect");
+
+  /**
+   * Whether the map and filter operation classes seen so far leave every connection lifecycle hook
+   * of {@link Operation} as is.
+   */
+  private static final ConcurrentHashMap<Class<?>, Boolean> fusibleClasses =
+    new ConcurrentHashMap<>();
+
+  /**
+   * Returns whether the given operation can participate in a fused chain. Map and filter operations
+   * that override a connection lifecycle hook are not fused, since a fused chain cannot call it.
+   */
+  static boolean isFusible(Operation<?, ?> operation) {
+    if (!(operation instanceof MapOperation) && !(operation instanceof FilterOperation)) {
+      return false;
+    }
+    Class<?> klass = operation.getClass();
+    Boolean fusible = fusibleClasses.get(klass);
+    if (fusible == null) {
+      fusible = !overridesLifecycle(klass);
+      fusibleClasses.put(klass, fusible);
+    }
+    return fusible;
+  }
+
+  private static boolean overridesLifecycle(Class<?> klass) {
+    for (Class<?> c = klass; c != Operation.class; c = c.getSuperclass()) {
+      for (Method method : c.getDeclaredMethods()) {
+        Class<?>[] parameters = method.getParameterTypes();
+        if (parameters.length == 1
+          && parameters[0] == MotionObserver.class
+          && LIFECYCLE_HOOKS.contains(method.getName())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  final Operation<?, ?>[] stages;
+  private final boolean[] filters;
+  private final boolean sameTyped;
+
+  FusedOperation(Operation<?, ?>[] stages) {
+    this.stages = stages;
+    this.filters = new boolean[stages.length];
+
+    boolean sameTyped = true;
+    for (int i = 0; i < stages.length; i++) {
+      filters[i] = stages[i] instanceof FilterOperation;
+      sameTyped &= stages[i] instanceof SameTypedMapOperation;
+    }
+    this.sameTyped = sameTyped;
+  }
+
+  /**
+   * Returns a new fused operation that applies the given operation after this one.
+   */
+  <V> FusedOperation<T, V> append(Operation<U, V> operation) {
+    Operation<?, ?>[] appended = new Operation<?, ?>[stages.length + 1];
+    System.arraycopy(stages, 0, appended, 0, stages.length);
+    appended[stages.length] = operation;
+    return new FusedOperation<>(appended);
+  }
+
+  @Override
+  public void next(MotionObserver<U> observer, T value) {
+    Object current = value;
+    for (int i = 0; i < stages.length; i++) {
+      if (filters[i]) {
+        //noinspection unchecked
+        if (!((FilterOperation<Object>) stages[i]).filter(current)) {
+          return;
+        }
+      } else {
+        //noinspection unchecked
+        current = ((MapOperation<Object, Object>) stages[i]).transform(current);
+      }
+    }
+    //noinspection unchecked
+    observer.next((U) current);
+  }
+
+  /**
+   * Forwards the build channel if every stage is a {@link SameTypedMapOperation}, matching the
+   * behavior of the unfused chain.
+   */
+  void build(MotionObserver<U> observer, MotionBuilder<T> builder, T[] values) {
+    if (!sameTyped) {
+      return;
+    }
+    for (int i = 0; i < stages.length; i++) {
+      //noinspection unchecked
+      SameTypedMapOperation<T> stage = (SameTypedMapOperation<T>) stages[i];
+      for (int j = 0; j < values.length; j++) {
+        values[j] = ReusedPointF.retainBuildValue(stage.transform(values[j]));
+      }
+    }
+    //noinspection unchecked
+    observer.build((MotionBuilder<U>) builder, (U[]) values);
+  }
+}
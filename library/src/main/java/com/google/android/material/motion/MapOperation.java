@@ -2,6 +2,11 @@ package com.google.android.material.motion;
 
 /**
  * A map operation transforms incoming values before they are passed downstream.
+ * <p>
+ * Consecutive map and filter operations are fused into a single stage by {@link
+ * MotionObservable#compose(Operation)}. A fused stage has no per-operation observer, so an
+ * operation that overrides one of the connection lifecycle hooks is not fused and is applied as a
+ * stage of its own instead.
  *
  * @param <T> The incoming value type.
  * @param <U> The downstream value type.
@@ -0,0 +1,450 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import android.support.annotation.IntDef;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Optional introspection of the live motion graph.
+ * <p>
+ * When enabled, every source, operator stage created by {@link MotionObservable#compose(Operation)}
+ * and reactive property that is connected becomes a node of the graph, and every connection
+ * becomes an edge from the connected node to the node that subscribed to it. Nodes record their
+ * subscriber count and event rate. The graph can be exported in the Graphviz DOT format with
+ * {@link #toDot()}.
+ * <p>
+ * Operators that are not created by {@link MotionObservable#compose(Operation)}, such as raw and
+ * float operators, are transparent: their upstream nodes are connected directly to their
+ * downstream nodes. Subscriptions made outside of the graph, for example by application code, are
+ * connected to a single external node.
+ * <p>
+ * Only connections made while the graph is enabled are recorded. A node stays in the graph while
+ * it has a subscriber or an upstream connection. This should only be used on the main thread.
+ */
+public final class MotionGraph {
+
+  /**
+   * The kinds of nodes in the graph.
+   */
+  @IntDef({Kind.SOURCE, Kind.OPERATOR, Kind.PROPERTY})
+  @Retention(RetentionPolicy.SOURCE)
+  public @interface Kind {
+
+    /**
+     * A source of values, such as a gesture or a spring.
+     */
+    int SOURCE = 0;
+
+    /**
+     * An operator stage of a stream.
+     */
+    int OPERATOR = 1;
+
+    /**
+     * A reactive property. Its upstream nodes are the streams written to it, and its subscribers
+     * observe its value.
+     */
+    int PROPERTY = 2;
+  }
+
+  /**
+   * The id of the node that stands for every subscriber outside of the graph.
+   */
+  public static final int EXTERNAL = 0;
+
+  /**
+   * Whether connections are recorded. Read directly on every connection; set with {@link
+   * #setEnabled(boolean)}.
+   */
+  public static boolean enabled;
+
+  private static final List<Node> nodes = new ArrayList<>();
+  private static int nextId = EXTERNAL + 1;
+
+  /**
+   * The node whose upstream connections are currently being made, or null if connections are
+   * being made from outside of the graph.
+   */
+  @Nullable
+  private static Node subscriber;
+
+  private MotionGraph() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static void setEnabled(boolean enabled) {
+    MotionGraph.enabled = enabled;
+  }
+
+  /**
+   * Creates a node. The node only appears in the graph once it is connected to.
+   * <p>
+   * This and the other node methods are only needed by sources that are not {@link Source}s.
+   */
+  public static Node newNode(@Kind int kind, String name) {
+    return new Node(nextId++, kind, name);
+  }
+
+  /**
+   * Records a new connection to the node, made by the node that is currently subscribing. Returns
+   * the edge that must be passed to {@link #disconnect(Edge)} once the connection is closed.
+   */
+  public static Edge connect(Node node) {
+    Edge edge = null;
+    for (int i = 0, count = node.edges.size(); i < count; i++) {
+      Edge existing = node.edges.get(i);
+      if (existing.to == subscriber) {
+        edge = existing;
+        break;
+      }
+    }
+    if (edge == null) {
+      edge = new Edge(node, subscriber);
+      node.edges.add(edge);
+    }
+
+    edge.connections++;
+    node.subscribers++;
+    retain(node);
+    if (subscriber != null) {
+      retain(subscriber);
+    }
+    return edge;
+  }
+
+  /**
+   * Records that a connection returned by {@link #connect(Node)} has been closed.
+   */
+  public static void disconnect(Edge edge) {
+    Node node = edge.from;
+    edge.connections--;
+    if (edge.connections == 0) {
+      node.edges.remove(edge);
+    }
+
+    node.subscribers--;
+    release(node);
+    if (edge.to != null) {
+      release(edge.to);
+    }
+  }
+
+  /**
+   * Marks the node as the subscriber of every connection made until {@link #endSubscribe(Node)}
+   * is called. Returns the previous subscriber, which must be passed to {@link
+   * #endSubscribe(Node)}.
+   */
+  @Nullable
+  public static Node beginSubscribe(Node node) {
+    Node previous = subscriber;
+    subscriber = node;
+    return previous;
+  }
+
+  public static void endSubscribe(@Nullable Node previous) {
+    subscriber = previous;
+  }
+
+  private static void retain(Node node) {
+    if (node.references++ == 0) {
+      nodes.add(node);
+    }
+  }
+
+  private static void release(Node node) {
+    if (--node.references == 0) {
+      nodes.remove(node);
+    }
+  }
+
+  /**
+   * Returns a copy of the current graph.
+   */
+  public static GraphSnapshot snapshot() {
+    return new GraphSnapshot(nodes);
+  }
+
+  /**
+   * Returns the current graph in the Graphviz DOT format.
+   */
+  public static String toDot() {
+    return snapshot().toDot();
+  }
+
+  /**
+   * Wraps the observer so that the values it receives are counted as events of the node.
+   */
+  static <T> MotionObserver<T> counting(final Node node, final MotionObserver<T> observer) {
+    return new MotionObserver<T>() {
+      @Override
+      public void next(T value) {
+        node.record();
+        observer.next(value);
+      }
+
+      @Override
+      public void build(MotionBuilder<T> builder, T[] values) {
+        observer.build(builder, values);
+      }
+    };
+  }
+
+  /**
+   * A node of the graph.
+   */
+  public static final class Node {
+
+    final int id;
+    @Kind
+    final int kind;
+    final String name;
+    final List<Edge> edges = new ArrayList<>();
+
+    int subscribers;
+    long events;
+    long firstEventNanos;
+    long lastEventNanos;
+
+    /**
+     * The number of subscribers plus the number of upstream connections.
+     */
+    private int references;
+
+    private Node(int id, @Kind int kind, String name) {
+      this.id = id;
+      this.kind = kind;
+      this.name = name;
+    }
+
+    /**
+     * Records an event. Sources record each value they emit, and other nodes record each value
+     * they receive.
+     */
+    public void record() {
+      long now = System.nanoTime();
+      if (events++ == 0) {
+        firstEventNanos = now;
+      }
+      lastEventNanos = now;
+    }
+  }
+
+  /**
+   * The connections from a node to one of its subscribers.
+   */
+  public static final class Edge {
+
+    final Node from;
+    @Nullable
+    final Node to;
+    int connections;
+
+    private Edge(Node from, @Nullable Node to) {
+      this.from = from;
+      this.to = to;
+    }
+  }
+
+  /**
+   * An immutable copy of the graph.
+   */
+  public static final class GraphSnapshot {
+
+    public final List<NodeSnapshot> nodes;
+    public final List<EdgeSnapshot> edges;
+
+    private GraphSnapshot(List<Node> liveNodes) {
+      List<NodeSnapshot> nodes = new ArrayList<>(liveNodes.size());
+      List<EdgeSnapshot> edges = new ArrayList<>();
+      for (int i = 0, count = liveNodes.size(); i < count; i++) {
+        Node node = liveNodes.get(i);
+        nodes.add(new NodeSnapshot(node));
+        for (int j = 0, edgeCount = node.edges.size(); j < edgeCount; j++) {
+          edges.add(new EdgeSnapshot(node.edges.get(j)));
+        }
+      }
+      this.nodes = Collections.unmodifiableList(nodes);
+      this.edges = Collections.unmodifiableList(edges);
+    }
+
+    /**
+     * Returns the node with the given id, or null if it is not part of the graph.
+     */
+    @Nullable
+    public NodeSnapshot node(int id) {
+      for (int i = 0, count = nodes.size(); i < count; i++) {
+        if (nodes.get(i).id == id) {
+          return nodes.get(i);
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Returns this graph in the Graphviz DOT format.
+     */
+    public String toDot() {
+      StringWriter writer = new StringWriter();
+      try {
+        writeDot(writer);
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+      return writer.toString();
+    }
+
+    /**
+     * Writes this graph in the Graphviz DOT format. Edges point from upstream to downstream and
+     * are labeled with their number of connections if it is greater than one.
+     */
+    public void writeDot(Writer writer) throws IOException {
+      writer.write("digraph motion {\n  rankdir=LR;\n");
+
+      boolean external = false;
+      for (int i = 0, count = edges.size(); i < count; i++) {
+        external |= edges.get(i).to == EXTERNAL;
+      }
+      if (external) {
+        writer.write("  n" + EXTERNAL + " [label=\"external\", shape=plaintext];\n");
+      }
+
+      for (int i = 0, count = nodes.size(); i < count; i++) {
+        NodeSnapshot node = nodes.get(i);
+        writer.write("  n" + node.id + " [label=\"");
+        writeEscaped(writer, node.name);
+        writer.write("\\n" + node.subscribers + " subscribers, " + node.events + " events");
+        if (node.events > 1) {
+          writer.write(String.format(Locale.US, ", %.1f/s", node.eventsPerSecond()));
+        }
+        writer.write("\", shape=" + shapeOf(node.kind) + "];\n");
+      }
+
+      for (int i = 0, count = edges.size(); i < count; i++) {
+        EdgeSnapshot edge = edges.get(i);
+        writer.write("  n" + edge.from + " -> n" + edge.to);
+        if (edge.connections > 1) {
+          writer.write(" [label=\"" + edge.connections + "\"]");
+        }
+        writer.write(";\n");
+      }
+
+      writer.write("}\n");
+    }
+
+    private static String shapeOf(@Kind int kind) {
+      switch (kind) {
+        case Kind.SOURCE:
+          return "box";
+        case Kind.PROPERTY:
+          return "note";
+        default:
+          return "ellipse";
+      }
+    }
+
+    private static void writeEscaped(Writer writer, String value) throws IOException {
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        if (c == '"' || c == '\\') {
+          writer.write('\\');
+          writer.write(c);
+        } else if (c == '\n') {
+          writer.write("\\n");
+        } else {
+          writer.write(c);
+        }
+      }
+    }
+  }
+
+  /**
+   * An immutable copy of a single node.
+   */
+  public static final class NodeSnapshot {
+
+    public final int id;
+    @Kind
+    public final int kind;
+    public final String name;
+    public final int subscribers;
+    public final long events;
+
+    private final long firstEventNanos;
+    private final long lastEventNanos;
+
+    private NodeSnapshot(Node node) {
+      id = node.id;
+      kind = node.kind;
+      name = node.name;
+      subscribers = node.subscribers;
+      events = node.events;
+      firstEventNanos = node.firstEventNanos;
+      lastEventNanos = node.lastEventNanos;
+    }
+
+    /**
+     * Returns the average number of events per second between the first and the last event.
+     */
+    public double eventsPerSecond() {
+      long duration = lastEventNanos - firstEventNanos;
+      if (events < 2 || duration <= 0) {
+        return 0;
+      }
+      return (events - 1) * 1e9 / duration;
+    }
+
+    @Override
+    public String toString() {
+      return name + ": " + subscribers + " subscribers, " + events + " events";
+    }
+  }
+
+  /**
+   * An immutable copy of a single edge.
+   */
+  public static final class EdgeSnapshot {
+
+    /**
+     * The id of the upstream node.
+     */
+    public final int from;
+    /**
+     * The id of the downstream node, or {@link #EXTERNAL}.
+     */
+    public final int to;
+    /**
+     * The number of open connections along this edge.
+     */
+    public final int connections;
+
+    private EdgeSnapshot(Edge edge) {
+      from = edge.from.id;
+      to = edge.to != null ? edge.to.id : EXTERNAL;
+      connections = edge.connections;
+    }
+  }
+}
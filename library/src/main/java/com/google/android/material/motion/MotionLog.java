@@ -0,0 +1,297 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import android.graphics.PointF;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records stream events into a preallocated ring buffer, and formats them only when the buffer
+ * is dumped.
+ * <p>
+ * Each event consists of a timestamp, the id of the stream that produced it and a primitive
+ * payload: a number, a boolean or a point. Other values are recorded without a payload. Recording
+ * does not allocate, so logging can be left on in the field and dumped on demand or with {@link
+ * #dumpOnCrash(String)}. When the buffer is full, the oldest events are overwritten.
+ * <p>
+ * Streams are usually recorded with {@link com.google.android.material.motion.operators.LogOp}.
+ * Recording should only be started, stopped and written to on the main thread.
+ */
+public final class MotionLog {
+
+  private static final byte NONE = 0;
+  private static final byte NUMBER = 1;
+  private static final byte BOOLEAN = 2;
+  private static final byte POINT = 3;
+  private static final byte FLOAT = 4;
+
+  private static boolean recording;
+
+  private static final List<String> streamNames = new ArrayList<>();
+  private static final Map<String, Integer> streamIds = new HashMap<>();
+
+  private static long[] timestamps = new long[0];
+  private static int[] streams = new int[0];
+  private static byte[] payloads = new byte[0];
+  private static double[] xs = new double[0];
+  private static double[] ys = new double[0];
+  private static int next;
+  private static int size;
+
+  private MotionLog() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Clears the buffer and starts recording up to {@code capacity} of the most recent events.
+   */
+  public static void start(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    if (timestamps.length != capacity) {
+      timestamps = new long[capacity];
+      streams = new int[capacity];
+      payloads = new byte[capacity];
+      xs = new double[capacity];
+      ys = new double[capacity];
+    }
+    clear();
+    recording = true;
+  }
+
+  /**
+   * Stops recording. The recorded events are kept until the next call to {@link #start(int)} or
+   * {@link #clear()}.
+   */
+  public static void stop() {
+    recording = false;
+  }
+
+  public static boolean isRecording() {
+    return recording;
+  }
+
+  /**
+   * Discards all recorded events.
+   */
+  public static void clear() {
+    next = 0;
+    size = 0;
+  }
+
+  /**
+   * Registers a stream and returns the id to record its events with. The name is only used when
+   * the buffer is dumped, so streams registered with the same name share an id.
+   */
+  public static int register(String name) {
+    synchronized (streamNames) {
+      Integer id = streamIds.get(name);
+      if (id == null) {
+        id = streamNames.size();
+        streamNames.add(name);
+        streamIds.put(name, id);
+      }
+      return id;
+    }
+  }
+
+  /**
+   * Records an event without a payload.
+   */
+  public static void record(int stream) {
+    if (recording) {
+      append(stream, NONE, 0, 0);
+    }
+  }
+
+  /**
+   * Records an event with a float payload.
+   */
+  public static void record(int stream, float value) {
+    if (recording) {
+      append(stream, FLOAT, value, 0);
+    }
+  }
+
+  /**
+   * Records an event with a numeric payload.
+   */
+  public static void record(int stream, double value) {
+    if (recording) {
+      append(stream, NUMBER, value, 0);
+    }
+  }
+
+  /**
+   * Records an event with a boolean payload.
+   */
+  public static void record(int stream, boolean value) {
+    if (recording) {
+      append(stream, BOOLEAN, value ? 1 : 0, 0);
+    }
+  }
+
+  /**
+   * Records an event with a point payload.
+   */
+  public static void record(int stream, float x, float y) {
+    if (recording) {
+      append(stream, POINT, x, y);
+    }
+  }
+
+  /**
+   * Records an event whose payload is taken from the given value if it is a number, a boolean or
+   * a {@link PointF}.
+   */
+  public static void record(int stream, Object value) {
+    if (!recording) {
+      return;
+    }
+    if (value instanceof Float) {
+      append(stream, FLOAT, (Float) value, 0);
+    } else if (value instanceof Number) {
+      append(stream, NUMBER, ((Number) value).doubleValue(), 0);
+    } else if (value instanceof Boolean) {
+      append(stream, BOOLEAN, (Boolean) value ? 1 : 0, 0);
+    } else if (value instanceof PointF) {
+      PointF point = (PointF) value;
+      append(stream, POINT, point.x, point.y);
+    } else {
+      append(stream, NONE, 0, 0);
+    }
+  }
+
+  private static void append(int stream, byte payload, double x, double y) {
+    int index = next;
+    timestamps[index] = System.nanoTime();
+    streams[index] = stream;
+    payloads[index] = payload;
+    xs[index] = x;
+    ys[index] = y;
+
+    next = (index + 1) % timestamps.length;
+    if (size < timestamps.length) {
+      size++;
+    }
+  }
+
+  /**
+   * Returns the recorded events, oldest first, one per line.
+   */
+  public static String dump() {
+    StringWriter writer = new StringWriter();
+    try {
+      dump(writer);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return writer.toString();
+  }
+
+  /**
+   * Writes the recorded events, oldest first, one per line. Each line holds the timestamp in
+   * milliseconds, the name of the stream and the payload.
+   */
+  public static void dump(Writer writer) throws IOException {
+    int capacity = timestamps.length;
+    for (int i = 0; i < size; i++) {
+      writer.write(format((next - size + i + capacity) % capacity));
+      writer.write('\n');
+    }
+  }
+
+  /**
+   * Writes the recorded events to the system log, oldest first, one entry per event.
+   */
+  public static void dumpToLogcat(String tag) {
+    int capacity = timestamps.length;
+    for (int i = 0; i < size; i++) {
+      Log.println(Log.DEBUG, tag, format((next - size + i + capacity) % capacity));
+    }
+  }
+
+  /**
+   * Installs a default uncaught exception handler that writes the recorded events to the system
+   * log before delegating to the previous handler.
+   */
+  public static void dumpOnCrash(final String tag) {
+    final UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+    Thread.setDefaultUncaughtExceptionHandler(new UncaughtExceptionHandler() {
+      @Override
+      public void uncaughtException(Thread thread, Throwable throwable) {
+        try {
+          stop();
+          dumpToLogcat(tag);
+        } catch (Throwable ignored) {
+          // The original exception must still be reported.
+        }
+        if (previous != null) {
+          previous.uncaughtException(thread, throwable);
+        }
+      }
+    });
+  }
+
+  private static String format(int index) {
+    StringBuilder line = new StringBuilder();
+    long nanos = timestamps[index];
+    line.append(nanos / 1000000).append('.');
+    String fraction = Long.toString(Math.abs(nanos / 1000 % 1000));
+    for (int i = fraction.length(); i < 3; i++) {
+      line.append('0');
+    }
+    line.append(fraction).append("ms ").append(nameOf(streams[index]));
+
+    switch (payloads[index]) {
+      case NUMBER:
+        line.append(' ').append(xs[index]);
+        break;
+      case FLOAT:
+        line.append(' ').append((float) xs[index]);
+        break;
+      case BOOLEAN:
+        line.append(' ').append(xs[index] != 0);
+        break;
+      case POINT:
+        line.append(" (").append((float) xs[index]).append(", ").append((float) ys[index])
+          .append(')');
+        break;
+      default:
+        break;
+    }
+    return line.toString();
+  }
+
+  private static String nameOf(int stream) {
+    synchronized (streamNames) {
+      if (stream >= 0 && stream < streamNames.size()) {
+        return streamNames.get(stream);
+      }
+    }
+    return "#" + stream;
+  }
+}
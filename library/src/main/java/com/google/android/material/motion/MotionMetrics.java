@@ -0,0 +1,475 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import android.os.SystemClock;
+import android.support.annotation.IntDef;
+import android.support.annotation.Nullable;
+
+import com.google.android.material.motion.ReactiveProperty.PropertyReactiveProperty;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Optional instrumentation of the motion graph.
+ * <p>
+ * When enabled, every operator stage created by {@link MotionObservable#compose(Operation)} and
+ * every stream written by a {@link MotionRuntime} records its event count, event rate and a
+ * latency histogram of the time spent handling each event. Operator stages also record how often
+ * they were subscribed to and unsubscribed from. Latencies exclude the time spent in downstream
+ * stages that are measured themselves.
+ * <p>
+ * Writes made while handling an input event also record their input latency: the delay between
+ * the time of the event and the write, split by the interaction that subscribed the written
+ * stream. Input sources mark the event being handled with {@link #beginInput(long)}, and operators
+ * that defer values to a later callback carry the mark along with {@link #inputNanos()} and
+ * {@link #resumeInput(long)}. Event times have millisecond precision, but the time spent within
+ * the motion graph is measured in nanoseconds.
+ * <p>
+ * Only streams that are subscribed to while metrics are enabled are measured. Recording does not
+ * allocate or lock, and {@link #snapshot()} may be called from any thread. When disabled, the only
+ * cost on the hot path is a check of a static field.
+ * <p>
+ * This should only be toggled on the main thread.
+ */
+public final class MotionMetrics {
+
+  /**
+   * The kinds of nodes that are measured.
+   */
+  @IntDef({Kind.OPERATOR, Kind.WRITE, Kind.LATENCY})
+  @Retention(RetentionPolicy.SOURCE)
+  public @interface Kind {
+
+    /**
+     * An operator stage of a stream.
+     */
+    int OPERATOR = 0;
+
+    /**
+     * A stream written to a property by a {@link MotionRuntime}.
+     */
+    int WRITE = 1;
+
+    /**
+     * The input latency of a stream written to a property by a {@link MotionRuntime}, from the
+     * input event that caused a value to the write of that value.
+     */
+    int LATENCY = 2;
+  }
+
+  /**
+   * The number of latency histogram buckets. Bucket {@code i} counts latencies in the range
+   * {@code [2^(i-1), 2^i)} nanoseconds, and bucket 0 counts latencies of zero.
+   */
+  public static final int BUCKETS = 40;
+
+  /**
+   * The value of {@link #inputNanos()} while no input event is being handled.
+   */
+  public static final long NO_INPUT = Long.MIN_VALUE;
+
+  static boolean enabled;
+
+  private static final ConcurrentLinkedQueue<Node> nodes = new ConcurrentLinkedQueue<>();
+
+  /**
+   * The latency nodes by name, so that repeated writes by the same kind of interaction to the same
+   * property share a node. Only accessed on the main thread.
+   */
+  private static final HashMap<String, Node> latencyNodes = new HashMap<>();
+
+  /**
+   * Incremented by {@link #reset()}. Nodes of an earlier generation are no longer reported, and
+   * are replaced when they are looked up again. Only accessed on the main thread.
+   */
+  private static int generation;
+
+  /**
+   * The time spent in measured stages below the stage that is currently handling an event.
+   * Events are delivered on the main thread only.
+   */
+  private static long childNanos;
+
+  /**
+   * The time of the input event that is currently being handled, in the time base of {@link
+   * System#nanoTime()}.
+   */
+  private static long inputNanos = NO_INPUT;
+
+  private MotionMetrics() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static void setEnabled(boolean enabled) {
+    MotionMetrics.enabled = enabled;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the current metrics of every measured node.
+   */
+  public static List<NodeSnapshot> snapshot() {
+    List<NodeSnapshot> snapshots = new ArrayList<>();
+    for (Node node : nodes) {
+      snapshots.add(new NodeSnapshot(node));
+    }
+    return snapshots;
+  }
+
+  /**
+   * Forgets every measured node. Streams that are currently subscribed keep recording into nodes
+   * that are no longer reported, while new subscriptions record into new nodes. This must be called
+   * on the main thread.
+   */
+  public static void reset() {
+    generation++;
+    nodes.clear();
+    latencyNodes.clear();
+  }
+
+  /**
+   * Marks the start of the handling of an input event. Returns a token that must be passed to
+   * {@link #endInput(long)} once the event has been handled.
+   *
+   * @param eventTimeMillis The time of the event in the {@link SystemClock#uptimeMillis()} time
+   *     base, as returned by {@link android.view.MotionEvent#getEventTime()}.
+   */
+  public static long beginInput(long eventTimeMillis) {
+    long token = inputNanos;
+    if (enabled) {
+      long ageMillis = SystemClock.uptimeMillis() - eventTimeMillis;
+      inputNanos = System.nanoTime() - ageMillis * 1000000L;
+    } else {
+      inputNanos = NO_INPUT;
+    }
+    return token;
+  }
+
+  /**
+   * Resumes the handling of an input event in a later callback. Returns a token that must be
+   * passed to {@link #endInput(long)} once the callback has been handled.
+   *
+   * @param inputNanos A value returned by {@link #inputNanos()} while the event was handled.
+   */
+  public static long resumeInput(long inputNanos) {
+    long token = MotionMetrics.inputNanos;
+    MotionMetrics.inputNanos = inputNanos;
+    return token;
+  }
+
+  /**
+   * Marks the end of the handling of an input event.
+   */
+  public static void endInput(long token) {
+    inputNanos = token;
+  }
+
+  /**
+   * Returns the time of the input event that is currently being handled, or {@link #NO_INPUT}.
+   */
+  public static long inputNanos() {
+    return inputNanos;
+  }
+
+  /**
+   * Returns the given node if it is still reported, or else a new node that is. Callers cache the
+   * result, so that each operator stage and property is reported by a single node no matter how
+   * often it is subscribed to.
+   */
+  static Node register(@Nullable Node node, @Kind int kind, String name) {
+    if (node != null && node.generation == generation) {
+      return node;
+    }
+    node = new Node(kind, name, generation);
+    node.registered = true;
+    nodes.add(node);
+    return node;
+  }
+
+  /**
+   * Returns the latency node with the given name. The node is only reported once it records its
+   * first latency, so that streams that are never driven by input do not report empty latency
+   * nodes.
+   */
+  static Node latencyNode(String name) {
+    Node node = latencyNodes.get(name);
+    if (node == null) {
+      node = new Node(Kind.LATENCY, name, generation);
+      latencyNodes.put(name, node);
+    }
+    return node;
+  }
+
+  /**
+   * Returns a readable name for the operation.
+   */
+  static String nameOf(Operation<?, ?> operation) {
+    if (operation instanceof FusedOperation) {
+      Operation<?, ?>[] stages = ((FusedOperation<?, ?>) operation).stages;
+      StringBuilder name = new StringBuilder();
+      for (int i = 0; i < stages.length; i++) {
+        if (i > 0) {
+          name.append(" > ");
+        }
+        name.append(simpleNameOf(stages[i]));
+      }
+      return name.toString();
+    }
+    return simpleNameOf(operation);
+  }
+
+  /**
+   * Returns a readable name for the property.
+   */
+  static String nameOf(ReactiveProperty<?> property) {
+    return "write " + propertyNameOf(property);
+  }
+
+  /**
+   * Returns a readable name for the input latency of writes to the property made by the given
+   * interaction, or by no interaction.
+   */
+  static String latencyNameOf(
+    @Nullable Interaction<?, ?> interaction, ReactiveProperty<?> property) {
+    String name = "latency ";
+    if (interaction != null) {
+      name += simpleNameOf(interaction) + " > ";
+    }
+    return name + propertyNameOf(property);
+  }
+
+  static String propertyNameOf(ReactiveProperty<?> property) {
+    if (property instanceof PropertyReactiveProperty) {
+      return ((PropertyReactiveProperty<?, ?>) property).property.getName();
+    }
+    return simpleNameOf(property);
+  }
+
+  private static String simpleNameOf(Object object) {
+    String name = object.getClass().getName();
+    return name.substring(name.lastIndexOf('.') + 1);
+  }
+
+  /**
+   * Starts measuring an event. Returns a token that must be passed to {@link #exit(Node, long,
+   * long)} together with the value of {@link System#nanoTime()} at the start of the event.
+   */
+  static long enter() {
+    long saved = childNanos;
+    childNanos = 0;
+    return saved;
+  }
+
+  /**
+   * Finishes measuring an event that started at {@code start}.
+   */
+  static void exit(Node node, long start, long token) {
+    long now = System.nanoTime();
+    long elapsed = now - start;
+    node.record(elapsed - childNanos, now);
+    childNanos = token + elapsed;
+  }
+
+  /**
+   * Records the latency of a write caused by the input event that is currently being handled, if
+   * any.
+   */
+  static void recordLatency(Node node) {
+    recordLatency(node, inputNanos);
+  }
+
+  /**
+   * Records the latency of a write caused by the input event at the given time.
+   */
+  static void recordLatency(Node node, long inputNanos) {
+    if (inputNanos != NO_INPUT) {
+      if (!node.registered && node.generation == generation) {
+        node.registered = true;
+        nodes.add(node);
+      }
+      long now = System.nanoTime();
+      node.record(now - inputNanos, now);
+    }
+  }
+
+  static int bucketOf(long nanos) {
+    if (nanos <= 0) {
+      return 0;
+    }
+    return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+  }
+
+  /**
+   * The metrics of a single measured node.
+   */
+  static final class Node {
+
+    @Kind
+    final int kind;
+    final String name;
+
+    final AtomicLong events = new AtomicLong();
+    final AtomicLong subscribes = new AtomicLong();
+    final AtomicLong unsubscribes = new AtomicLong();
+    final AtomicLong totalNanos = new AtomicLong();
+    final AtomicLong firstEventNanos = new AtomicLong();
+    final AtomicLong lastEventNanos = new AtomicLong();
+    final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Whether the node is reported by {@link #snapshot()}. Only accessed on the main thread.
+     */
+    private boolean registered;
+    private final int generation;
+
+    private Node(@Kind int kind, String name, int generation) {
+      this.kind = kind;
+      this.name = name;
+      this.generation = generation;
+    }
+
+    void record(long nanos, long now) {
+      events.incrementAndGet();
+      totalNanos.addAndGet(nanos);
+      histogram.incrementAndGet(bucketOf(nanos));
+      firstEventNanos.compareAndSet(0, now);
+      lastEventNanos.set(now);
+    }
+  }
+
+  /**
+   * The metrics of an operator stage, shared by every subscription to the stage. The operation may
+   * be an {@link Operation} or an operation of a float stream.
+   */
+  static final class Stage {
+
+    private final Object operation;
+    @Nullable
+    private Node node;
+
+    Stage(Object operation) {
+      this.operation = operation;
+    }
+
+    /**
+     * Counts a subscription to the stage. Returns the node that the subscription records into, or
+     * null if metrics are disabled.
+     */
+    @Nullable
+    Node subscribe() {
+      if (!enabled) {
+        return null;
+      }
+      if (node == null || node.generation != generation) {
+        node = register(null, Kind.OPERATOR, name());
+      }
+      node.subscribes.incrementAndGet();
+      return node;
+    }
+
+    /**
+     * Returns a readable name for the stage's operation.
+     */
+    String name() {
+      return operation instanceof Operation
+        ? nameOf((Operation<?, ?>) operation)
+        : simpleNameOf(operation);
+    }
+  }
+
+  /**
+   * An immutable copy of the metrics of a single node.
+   */
+  public static final class NodeSnapshot {
+
+    @Kind
+    public final int kind;
+    public final String name;
+    public final long events;
+    public final long subscribes;
+    public final long unsubscribes;
+    public final long totalNanos;
+    /**
+     * The latency histogram. See {@link #BUCKETS} for the range of each bucket.
+     */
+    public final long[] histogram;
+
+    private final long firstEventNanos;
+    private final long lastEventNanos;
+
+    private NodeSnapshot(Node node) {
+      kind = node.kind;
+      name = node.name;
+      events = node.events.get();
+      subscribes = node.subscribes.get();
+      unsubscribes = node.unsubscribes.get();
+      totalNanos = node.totalNanos.get();
+      firstEventNanos = node.firstEventNanos.get();
+      lastEventNanos = node.lastEventNanos.get();
+
+      histogram = new long[BUCKETS];
+      for (int i = 0; i < BUCKETS; i++) {
+        histogram[i] = node.histogram.get(i);
+      }
+    }
+
+    /**
+     * Returns the average number of events per second between the first and the last event.
+     */
+    public double eventsPerSecond() {
+      long duration = lastEventNanos - firstEventNanos;
+      if (events < 2 || duration <= 0) {
+        return 0;
+      }
+      return (events - 1) * 1e9 / duration;
+    }
+
+    /**
+     * Returns an upper bound of the given latency percentile in nanoseconds, or 0 if there were no
+     * events.
+     *
+     * @param percentile A value between 0 and 1.
+     */
+    public long percentileNanos(double percentile) {
+      long threshold = (long) Math.ceil(events * percentile);
+      long count = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        count += histogram[i];
+        if (count >= threshold && count > 0) {
+          return i == 0 ? 0 : 1L << i;
+        }
+      }
+      return 0;
+    }
+
+    @Override
+    public String toString() {
+      return name + ": " + events + " events, " + subscribes + " subscribes, " + unsubscribes
+        + " unsubscribes, p50 " + percentileNanos(0.5) + "ns, p99 " + percentileNanos(0.99) + "ns";
+    }
+  }
+}
@@ -16,6 +16,7 @@
 package com.google.android.material.motion;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.view.View;
 import android.widget.TextView;
 
@@ -31,8 +32,43 @@ import com.google.android.material.motion.MotionObserver.SimpleMotionObserver;
  */
 public class MotionObservable<T> extends IndefiniteObservable<MotionObserver<T>> {
 
+  /**
+   * The stream that the fused operation is applied to, if this stream was created by composing
+   * map or filter operations.
+   */
+  @Nullable
+  private final MotionObservable<?> fusedUpstream;
+  @Nullable
+  private final FusedOperation<?, T> fusedOperation;
+  /**
+   * The number of operator stages between this stream and its source.
+   */
+  private final int depth;
+
   public MotionObservable(Connector<MotionObserver<T>> connector) {
+    this(connector, 0);
+  }
+
+  MotionObservable(Connector<MotionObserver<T>> connector, int depth) {
     super(connector);
+    this.fusedUpstream = null;
+    this.fusedOperation = null;
+    this.depth = depth;
+  }
+
+  private <S> MotionObservable(MotionObservable<S> upstream, FusedOperation<S, T> operation) {
+    super(connector(upstream, operation));
+    this.fusedUpstream = upstream;
+    this.fusedOperation = operation;
+    this.depth = upstream.depth() + operation.stages.length;
+  }
+
+  /**
+   * Returns the depth of this stream in the stream graph. Sources have depth 0, and every operator
+   * stage adds one. See {@link Propagation}.
+   */
+  int depth() {
+    return depth;
   }
 
   /**
@@ -54,6 +90,9 @@ public class MotionObservable<T> extends IndefiniteObservable<MotionObserver<T>>
    * This is the preferred method for building new operators. This builder can be used to create
    * any operator that only needs to modify or block values. All state events are forwarded
    * along.
+   * <p>
+   * Consecutive {@link MapOperation}s and {@link FilterOperation}s are fused into a single stage,
+   * so that each value crosses one observer boundary regardless of the length of the chain.
    *
    * @param operation An operation to apply to each incoming value. The operation must handle
    * values of type {@link T} or more general types. For example, an operation that handles {@link
@@ -62,19 +101,97 @@ public class MotionObservable<T> extends IndefiniteObservable<MotionObserver<T>>
    * of this type.
    */
   public <U> MotionObservable<U> compose(final Operation<T, U> operation) {
-    final MotionObservable<T> upstream = MotionObservable.this;
+    if (FusedOperation.isFusible(operation)) {
+      if (fusedOperation != null) {
+        //noinspection unchecked
+        return new MotionObservable<>(
+          (MotionObservable<Object>) fusedUpstream,
+          ((FusedOperation<Object, T>) fusedOperation).append(operation));
+      }
+      return new MotionObservable<>(
+        this, new FusedOperation<T, U>(new Operation<?, ?>[]{operation}));
+    }
+
+    return new MotionObservable<>(connector(this, operation), depth() + 1);
+  }
 
-    return new MotionObservable<>(new Connector<MotionObserver<U>>() {
+  private static <T, U> Connector<MotionObserver<U>> connector(
+    final MotionObservable<T> upstream, final Operation<T, U> operation) {
+    return new Connector<MotionObserver<U>>() {
+
+      /**
+       * The metrics of this stage.
+       */
+      private final MotionMetrics.Stage metrics = new MotionMetrics.Stage(operation);
+      /**
+       * The graph node of this stage, created on the first connection while the graph is enabled.
+       */
+      @Nullable
+      private MotionGraph.Node graphNode;
+      /**
+       * The trace section name of this stage, created on the first event while tracing.
+       */
+      @Nullable
+      private String sectionName;
+
+      private String sectionName() {
+        if (sectionName == null) {
+          sectionName = MotionTrace.sectionName(MotionMetrics.nameOf(operation));
+        }
+        return sectionName;
+      }
 
       @NonNull
       @Override
       public Disconnector connect(final MotionObserver<U> observer) {
+        final MotionMetrics.Node stageMetrics = metrics.subscribe();
+
+        final MotionGraph.Node stageNode;
+        final MotionGraph.Edge graphEdge;
+        MotionGraph.Node graphSubscriber = null;
+        if (MotionGraph.enabled) {
+          if (graphNode == null) {
+            graphNode = MotionGraph.newNode(
+              MotionGraph.Kind.OPERATOR, MotionMetrics.nameOf(operation));
+          }
+          stageNode = graphNode;
+          graphEdge = MotionGraph.connect(stageNode);
+          graphSubscriber = MotionGraph.beginSubscribe(stageNode);
+        } else {
+          stageNode = null;
+          graphEdge = null;
+        }
+
         operation.preConnect(observer);
         final Subscription subscription = upstream.subscribe(new MotionObserver<T>() {
 
           @Override
           public void next(T value) {
-            operation.next(observer, value);
+            if (stageNode != null) {
+              stageNode.record();
+            }
+            if (MotionTrace.active) {
+              String section = sectionName();
+              MotionTrace.beginSection(section);
+              try {
+                measureNext(value);
+              } finally {
+                MotionTrace.endSection(section);
+              }
+            } else {
+              measureNext(value);
+            }
+          }
+
+          private void measureNext(T value) {
+            if (stageMetrics != null && MotionMetrics.enabled) {
+              long token = MotionMetrics.enter();
+              long start = System.nanoTime();
+              operation.next(observer, value);
+              MotionMetrics.exit(stageMetrics, start, token);
+            } else {
+              operation.next(observer, value);
+            }
           }
 
           @Override
@@ -83,10 +200,15 @@ public class MotionObservable<T> extends IndefiniteObservable<MotionObserver<T>>
               //noinspection unchecked
               ((SameTypedMapOperation<T>) operation).build(
                 (MotionObserver<T>) observer, builder, values);
+            } else if (operation instanceof FusedOperation) {
+              ((FusedOperation<T, U>) operation).build(observer, builder, values);
             }
           }
         });
         operation.postConnect(observer);
+        if (graphEdge != null) {
+          MotionGraph.endSubscribe(graphSubscriber);
+        }
 
         return new Disconnector() {
 
@@ -95,13 +217,97 @@ public class MotionObservable<T> extends IndefiniteObservable<MotionObserver<T>>
             operation.preDisconnect(observer);
             subscription.unsubscribe();
             operation.postDisconnect(observer);
+
+            if (stageMetrics != null) {
+              stageMetrics.unsubscribes.incrementAndGet();
+            }
+            if (graphEdge != null) {
+              MotionGraph.disconnect(graphEdge);
+            }
           }
         };
       }
-    });
+    };
   }
 
   public <U> MotionObservable<U> compose(final RawOperation<T, U> operation) {
     return operation.compose(this);
   }
+
+  /**
+   * Applies the given operation to the incoming stream and continues in the unboxed float domain.
+   *
+   * @see FloatMotionObservable
+   */
+  public FloatMotionObservable compose(final ToFloatOperation<T> operation) {
+    final MotionObservable<T> upstream = MotionObservable.this;
+
+    return new FloatMotionObservable(new Connector<FloatMotionObserver>() {
+
+      private final MotionMetrics.Stage metrics = new MotionMetrics.Stage(operation);
+      /**
+       * The trace section name of this stage, created on the first event while tracing.
+       */
+      @Nullable
+      private String sectionName;
+
+      private String sectionName() {
+        if (sectionName == null) {
+          sectionName = MotionTrace.sectionName(metrics.name());
+        }
+        return sectionName;
+      }
+
+      @NonNull
+      @Override
+      public Disconnector connect(final FloatMotionObserver observer) {
+        final MotionMetrics.Node stageMetrics = metrics.subscribe();
+
+        operation.preConnect(observer);
+        final Subscription subscription = upstream.subscribe(new SimpleMotionObserver<T>() {
+
+          @Override
+          public void next(T value) {
+            if (MotionTrace.active) {
+              String section = sectionName();
+              MotionTrace.beginSection(section);
+              try {
+                measureNext(value);
+              } finally {
+                MotionTrace.endSection(section);
+              }
+            } else {
+              measureNext(value);
+            }
+          }
+
+          private void measureNext(T value) {
+            if (stageMetrics != null && MotionMetrics.enabled) {
+              long token = MotionMetrics.enter();
+              long start = System.nanoTime();
+              operation.next(observer, value);
+              MotionMetrics.exit(stageMetrics, start, token);
+            } else {
+              operation.next(observer, value);
+            }
+          }
+        });
+        operation.postConnect(observer);
+
+        return new Disconnector() {
+
+          @Override
+          public void disconnect() {
+            operation.preDisconnect(observer);
+            subscription.unsubscribe();
+            operation.postDisconnect(observer);
+
+            if (stageMetrics != null) {
+              stageMetrics.unsubscribes.incrementAndGet();
+            }
+          }
+        };
+      }
+    }, depth() + 1);
+  }
 }
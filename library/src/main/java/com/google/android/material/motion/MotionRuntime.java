@@ -15,14 +15,23 @@
  */
 package com.google.android.material.motion;
 
+import android.support.annotation.IntDef;
+import android.support.annotation.Nullable;
+import android.support.v4.util.SimpleArrayMap;
 import android.util.Property;
 import android.view.View;
 
+import com.google.android.indefinite.observable.IndefiniteObservable.Disconnector;
 import com.google.android.indefinite.observable.IndefiniteObservable.Subscription;
+import com.google.android.material.motion.ReactiveProperty.PropertyReactiveProperty;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.WeakHashMap;
 
 import static com.google.android.material.motion.operators.Dedupe.dedupe;
 import static com.google.android.material.motion.operators.Rewrite.rewrite;
@@ -32,37 +41,305 @@ import static com.google.android.material.motion.operators.Rewrite.rewrite;
  */
 public final class MotionRuntime {
 
+  /**
+   * The ways in which the runtime can write stream values to properties.
+   */
+  @IntDef({WriteMode.IMMEDIATE, WriteMode.COALESCED})
+  @Retention(RetentionPolicy.SOURCE)
+  public @interface WriteMode {
+
+    /**
+     * Every value is written to the property as soon as it is emitted.
+     */
+    int IMMEDIATE = 0;
+
+    /**
+     * Only the latest value emitted for each property within a display frame is written, once per
+     * frame. Values that would be overwritten within the same frame are never written. Each
+     * written property still invalidates a stock view; see {@link BatchedWriteTarget}.
+     */
+    int COALESCED = 1;
+  }
+
+  /**
+   * Subscriptions that belong to neither an interaction nor a target.
+   */
   private final List<Subscription> subscriptions = new ArrayList<>();
-  private final WeakHashMap<View, ReactiveView> cachedReactiveViews = new WeakHashMap<>();
-  private final WeakHashMap<Object, List<Interaction<?, ?>>> cachedInteractions =
-    new WeakHashMap<>();
+  private final WeakIdentityMap<Object, TargetRecord> targets = new WeakIdentityMap<>();
+  private final IdentityHashMap<Interaction<?, ?>, InteractionRecord> interactions =
+    new IdentityHashMap<>();
+
+  /**
+   * The interaction that is currently being applied or started. Subscriptions made in the meantime
+   * belong to it.
+   */
+  @Nullable
+  private InteractionRecord applying;
+
+  @WriteMode
+  private int writeMode = WriteMode.IMMEDIATE;
+  @Nullable
+  private CoalescedWrites coalescedWrites;
+
+  /**
+   * Sets the write mode used by subsequent calls to the write methods that do not specify one.
+   * Defaults to {@link WriteMode#IMMEDIATE}.
+   */
+  public void setWriteMode(@WriteMode int writeMode) {
+    this.writeMode = writeMode;
+  }
+
+  @WriteMode
+  public int getWriteMode() {
+    return writeMode;
+  }
 
   /**
    * Subscribes to the stream, writes its output to the given property, and observes its state.
    */
   public <O, T> void write(
     MotionObservable<T> stream, final O target, final Property<O, T> property) {
-    write(stream, ReactiveProperty.of(target, property));
+    write(stream, ReactiveProperty.of(target, property), writeMode);
+  }
+
+  /**
+   * Subscribes to the stream, writes its output to the given property using the given write mode,
+   * and observes its state.
+   */
+  public <O, T> void write(
+    MotionObservable<T> stream, O target, Property<O, T> property, @WriteMode int mode) {
+    write(stream, ReactiveProperty.of(target, property), mode);
   }
 
   /**
    * Subscribes to the stream, writes its output to the given property, and observes its state.
    */
   public <T> void write(MotionObservable<T> stream, final ReactiveProperty<T> property) {
-    subscriptions.add(stream.subscribe(new MotionObserver<T>() {
+    write(stream, property, writeMode);
+  }
+
+  /**
+   * Subscribes to the stream, writes its output to the given property using the given write mode,
+   * and observes its state.
+   */
+  public <T> void write(
+    MotionObservable<T> stream, ReactiveProperty<T> property, @WriteMode int mode) {
+    final PropertyWriter<T> writer = new PropertyWriter<>(property, mode, stream.depth());
+    writer.track(stream.subscribe(new MotionObserver<T>() {
 
       @Override
       public void next(T value) {
-        property.write(value);
+        writer.write(value);
       }
 
       @Override
       public void build(MotionBuilder<T> builder, T[] values) {
-        builder.start(property, values);
+        writer.build(builder, values);
+      }
+    }));
+  }
+
+  /**
+   * Subscribes to the float stream, writes its output to the given property, and observes its
+   * state.
+   */
+  public <O> void write(
+    FloatMotionObservable stream, final O target, final Property<O, Float> property) {
+    write(stream, ReactiveProperty.of(target, property), writeMode);
+  }
+
+  /**
+   * Subscribes to the float stream, writes its output to the given property, and observes its
+   * state. Values are only boxed when they are written to the property.
+   */
+  public void write(FloatMotionObservable stream, final ReactiveProperty<Float> property) {
+    write(stream, property, writeMode);
+  }
+
+  /**
+   * Subscribes to the float stream, writes its output to the given property using the given write
+   * mode, and observes its state. Values are only boxed when they are written to the property.
+   */
+  public void write(
+    FloatMotionObservable stream, ReactiveProperty<Float> property, @WriteMode int mode) {
+    final PropertyWriter<Float> writer = new PropertyWriter<>(property, mode, stream.depth());
+    writer.track(stream.subscribe(new FloatMotionObserver() {
+
+      @Override
+      public void next(float value) {
+        writer.write(value);
+      }
+
+      @Override
+      public void build(MotionBuilder<Float> builder, Float[] values) {
+        writer.build(builder, values);
       }
     }));
   }
 
+  /**
+   * Returns the node that records the input latency of writes to the property made by the
+   * interaction that is being applied, or null if metrics are disabled.
+   */
+  @Nullable
+  private MotionMetrics.Node latencyFor(ReactiveProperty<?> property) {
+    if (!MotionMetrics.enabled) {
+      return null;
+    }
+    Interaction<?, ?> interaction = applying != null ? applying.interaction : null;
+    return MotionMetrics.latencyNode(MotionMetrics.latencyNameOf(interaction, property));
+  }
+
+  /**
+   * Records the subscription under the interaction that is being applied, or else under the target
+   * of the property, so that it can be unsubscribed when either is removed. Properties that are
+   * written with {@link WriteMode#COALESCED} are recorded as well, so that their pending values can
+   * be dropped on removal.
+   */
+  private void track(
+    ReactiveProperty<?> property, Subscription subscription, @WriteMode int mode) {
+    List<Subscription> owner;
+    List<ReactiveProperty<?>> coalescedProperties;
+    if (applying != null) {
+      owner = applying.subscriptions;
+      coalescedProperties = applying.coalescedProperties;
+    } else if (property instanceof PropertyReactiveProperty) {
+      TargetRecord record =
+        targetRecord(((PropertyReactiveProperty<?, ?>) property).target, true);
+      //noinspection ConstantConditions
+      owner = record.subscriptions;
+      coalescedProperties = record.coalescedProperties;
+    } else {
+      // Pending values of untracked subscriptions are only dropped by dispose().
+      owner = subscriptions;
+      coalescedProperties = null;
+    }
+
+    owner.add(subscription);
+    if (mode == WriteMode.COALESCED && coalescedProperties != null) {
+      coalescedProperties.add(property);
+    }
+  }
+
+  private <T> void writeValue(
+    ReactiveProperty<T> property,
+    T value,
+    @WriteMode int mode,
+    @Nullable MotionMetrics.Node latency) {
+    if (mode == WriteMode.COALESCED) {
+      if (coalescedWrites == null) {
+        coalescedWrites = new CoalescedWrites();
+      }
+      coalescedWrites.write(property, value, latency, MotionMetrics.inputNanos());
+    } else {
+      property.write(value);
+      if (latency != null) {
+        MotionMetrics.recordLatency(latency);
+      }
+    }
+  }
+
+  private <T> void startBuilder(
+    ReactiveProperty<T> property, MotionBuilder<T> builder, T[] values) {
+    if (coalescedWrites != null) {
+      // The builder now drives the property, so a pending value would be stale.
+      coalescedWrites.cancel(property);
+    }
+    builder.start(property, values);
+  }
+
+  /**
+   * Writes the values of one stream subscription to a property, and records the trace sections,
+   * metrics and graph connection of the write.
+   */
+  private final class PropertyWriter<T> {
+
+    private final ReactiveProperty<T> property;
+    @WriteMode
+    private final int mode;
+    @Nullable
+    private final MotionMetrics.Node metrics;
+    @Nullable
+    private final MotionMetrics.Node latency;
+    @Nullable
+    private final MotionGraph.Node graphSubscriber;
+    private final boolean graph;
+    @Nullable
+    private String sectionName;
+
+    /**
+     * Creates a writer for a subscription to a stream of the given depth that is about to be made.
+     * {@link #track(Subscription)} must be called with the subscription once it has been made.
+     */
+    PropertyWriter(ReactiveProperty<T> property, @WriteMode int mode, int streamDepth) {
+      this.property = property;
+      this.mode = mode;
+      property.addWriter(streamDepth);
+      if (MotionMetrics.enabled) {
+        metrics = property.metricsNode();
+        metrics.subscribes.incrementAndGet();
+      } else {
+        metrics = null;
+      }
+      latency = latencyFor(property);
+      graph = MotionGraph.enabled;
+      graphSubscriber = graph ? MotionGraph.beginSubscribe(property.graphNode()) : null;
+    }
+
+    void write(T value) {
+      if (MotionTrace.active) {
+        if (sectionName == null) {
+          sectionName = MotionTrace.sectionName(MotionMetrics.nameOf(property));
+        }
+        MotionTrace.beginSection(sectionName);
+        try {
+          measureWrite(value);
+        } finally {
+          MotionTrace.endSection(sectionName);
+        }
+      } else {
+        measureWrite(value);
+      }
+    }
+
+    private void measureWrite(T value) {
+      if (metrics != null && MotionMetrics.enabled) {
+        long token = MotionMetrics.enter();
+        long start = System.nanoTime();
+        writeValue(property, value, mode, latency);
+        MotionMetrics.exit(metrics, start, token);
+      } else {
+        writeValue(property, value, mode, latency);
+      }
+    }
+
+    void build(MotionBuilder<T> builder, T[] values) {
+      startBuilder(property, builder, values);
+    }
+
+    /**
+     * Tracks the subscription of this writer. Unsubscribing it is counted in the write's metrics.
+     */
+    void track(final Subscription subscription) {
+      if (graph) {
+        MotionGraph.endSubscribe(graphSubscriber);
+      }
+
+      final MotionMetrics.Node metrics = this.metrics;
+      if (metrics == null) {
+        MotionRuntime.this.track(property, subscription, mode);
+        return;
+      }
+      MotionRuntime.this.track(property, new Subscription(new Disconnector() {
+        @Override
+        public void disconnect() {
+          subscription.unsubscribe();
+          metrics.unsubscribes.incrementAndGet();
+        }
+      }), mode);
+    }
+  }
+
   @SafeVarargs
   public final <O, T> void addInteraction(
     Interaction<O, T> interaction, O target, Operation<T, T>... constraints) {
@@ -71,49 +348,279 @@ public final class MotionRuntime {
 
   public final <O, T> void addInteraction(
     Interaction<O, T> interaction, O target, ConstraintApplicator<T> constraints) {
-    List<Interaction<?, ?>> interactions = cachedInteractions.get(target);
-    if (interactions == null) {
-      interactions = new ArrayList<>();
-      cachedInteractions.put(target, interactions);
+    //noinspection ConstantConditions
+    targetRecord(target, true).addInteraction(interaction);
+
+    InteractionRecord record = interactionRecord(interaction);
+    record.targets.add(new WeakReference<Object>(target));
+    if (applying != null) {
+      applying.children.add(interaction);
+    }
+
+    InteractionRecord parent = applying;
+    applying = record;
+    try {
+      interaction.apply(this, target, constraints);
+    } finally {
+      applying = parent;
+    }
+  }
+
+  /**
+   * Removes the interaction from every target it was added to. All subscriptions made while
+   * applying it are unsubscribed, and the interactions it added are removed as well.
+   */
+  public void removeInteraction(Interaction<?, ?> interaction) {
+    InteractionRecord record = interactions.remove(interaction);
+    if (record == null) {
+      return;
+    }
+
+    unsubscribeAll(record.subscriptions);
+    cancelWrites(record.coalescedProperties);
+    for (int i = 0, count = record.targets.size(); i < count; i++) {
+      Object target = record.targets.get(i).get();
+      TargetRecord targetRecord = target != null ? targetRecord(target, false) : null;
+      if (targetRecord != null) {
+        targetRecord.removeInteraction(interaction);
+      }
+    }
+    for (int i = 0, count = record.children.size(); i < count; i++) {
+      removeInteraction(record.children.get(i));
     }
-    interactions.add(interaction);
+  }
 
-    interaction.apply(this, target, constraints);
+  /**
+   * Removes every interaction that was added to the target and unsubscribes every stream that
+   * writes to one of its properties. An interaction that was also added to other targets is
+   * removed from them too.
+   */
+  public void detach(Object target) {
+    TargetRecord record = targets.remove(target);
+    if (record == null) {
+      return;
+    }
+
+    unsubscribeAll(record.subscriptions);
+    cancelWrites(record.coalescedProperties);
+    for (int i = record.interactions.size() - 1; i >= 0; i--) {
+      removeInteraction(record.interactions.get(i));
+    }
+  }
+
+  /**
+   * Unsubscribes every stream that was written by this runtime and forgets all interactions. The
+   * runtime can still be used afterwards.
+   */
+  public void dispose() {
+    for (InteractionRecord record : interactions.values()) {
+      unsubscribeAll(record.subscriptions);
+    }
+    for (TargetRecord record : targets.values()) {
+      unsubscribeAll(record.subscriptions);
+    }
+    unsubscribeAll(subscriptions);
+
+    interactions.clear();
+    targets.clear();
+    if (coalescedWrites != null) {
+      coalescedWrites.clear();
+    }
+  }
+
+  private InteractionRecord interactionRecord(Interaction<?, ?> interaction) {
+    InteractionRecord record = interactions.get(interaction);
+    if (record == null) {
+      record = new InteractionRecord(interaction);
+      interactions.put(interaction, record);
+    }
+    return record;
+  }
+
+  @Nullable
+  private TargetRecord targetRecord(Object target, boolean create) {
+    TargetRecord record = targets.get(target);
+    if (record == null && create) {
+      record = new TargetRecord();
+      targets.put(target, record);
+    }
+    return record;
+  }
+
+  private static void unsubscribeAll(List<Subscription> subscriptions) {
+    for (int i = 0, count = subscriptions.size(); i < count; i++) {
+      subscriptions.get(i).unsubscribe();
+    }
+    subscriptions.clear();
+  }
+
+  /**
+   * Drops the pending coalesced writes to the given properties, which are no longer written by the
+   * removed interaction or target.
+   */
+  private void cancelWrites(List<ReactiveProperty<?>> properties) {
+    if (coalescedWrites != null) {
+      for (int i = 0, count = properties.size(); i < count; i++) {
+        coalescedWrites.cancel(properties.get(i));
+      }
+    }
+    properties.clear();
+  }
+
+  /**
+   * Removes the given element from the list. Returns whether it was found.
+   */
+  private static boolean removeIdentical(List<?> list, Object element) {
+    for (int i = 0, count = list.size(); i < count; i++) {
+      if (list.get(i) == element) {
+        list.remove(i);
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
    * Returns a reactive version of the given object and caches the returned result for future access.
    */
   public ReactiveView get(View view) {
-    ReactiveView reactiveView = cachedReactiveViews.get(view);
+    // The reactive view is stored in a tag so that it is released along with the view.
+    ReactiveView reactiveView = (ReactiveView) view.getTag(R.id.reactive_view_tag);
     if (reactiveView == null) {
       reactiveView = new ReactiveView(view);
-      cachedReactiveViews.put(view, reactiveView);
+      view.setTag(R.id.reactive_view_tag, reactiveView);
     }
 
     return reactiveView;
   }
 
+  /**
+   * Returns the interactions of the given class that were added to the target, in the order they
+   * were added.
+   * <p>
+   * The returned list is an immutable snapshot, so interactions can be removed while iterating it.
+   * Snapshots are cached per class until the target's interactions change, so repeated queries do
+   * not allocate.
+   */
   public <I extends Interaction<O, ?>, O> List<I> interactions(Class<I> klass, O target) {
-    List<Interaction<?, ?>> interactions = cachedInteractions.get(target);
-    List<I> filteredInteractions = new ArrayList<>();
-
-    for (Interaction<?, ?> i : interactions) {
-      if(klass.isInstance(i))
-        //noinspection unchecked
-        filteredInteractions.add((I)i);
+    TargetRecord record = targetRecord(target, false);
+    if (record == null) {
+      return Collections.emptyList();
     }
-    return filteredInteractions;
+    return record.interactions(klass);
   }
 
   /**
-   * Initiates interaction {@code a} when interaction {@code b} changes to the given state.
+   * Initiates interaction {@code a} when interaction {@code b} changes to the given state. This
+   * stops when {@code a} is removed.
    */
   public void start(Interaction<?, ?> a, Interaction<?, ?> b, @MotionState int state) {
     MotionObservable<Boolean> stream =
       b.state.getStream()
         .compose(dedupe())
         .compose(rewrite(state, true));
-    write(stream, a.enabled);
+
+    // The subscription belongs to the interaction whose enabled property it writes.
+    InteractionRecord parent = applying;
+    applying = interactionRecord(a);
+    try {
+      write(stream, a.enabled);
+    } finally {
+      applying = parent;
+    }
+  }
+
+  /**
+   * The interactions added to a target, and the subscriptions that write to its properties outside
+   * of any interaction.
+   */
+  private static final class TargetRecord {
+
+    private final List<Interaction<?, ?>> interactions = new ArrayList<>();
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private final List<ReactiveProperty<?>> coalescedProperties = new ArrayList<>();
+    /**
+     * The interactions matching each class that has been queried, kept up to date as interactions
+     * are added and removed.
+     */
+    private final SimpleArrayMap<Class<?>, ClassIndex> classIndexes = new SimpleArrayMap<>();
+
+    private void addInteraction(Interaction<?, ?> interaction) {
+      interactions.add(interaction);
+      for (int i = 0, count = classIndexes.size(); i < count; i++) {
+        if (classIndexes.keyAt(i).isInstance(interaction)) {
+          classIndexes.valueAt(i).add(interaction);
+        }
+      }
+    }
+
+    private void removeInteraction(Interaction<?, ?> interaction) {
+      removeIdentical(interactions, interaction);
+      for (int i = 0, count = classIndexes.size(); i < count; i++) {
+        classIndexes.valueAt(i).remove(interaction);
+      }
+    }
+
+    private <I> List<I> interactions(Class<I> klass) {
+      ClassIndex index = classIndexes.get(klass);
+      if (index == null) {
+        index = new ClassIndex();
+        for (int i = 0, count = interactions.size(); i < count; i++) {
+          Interaction<?, ?> interaction = interactions.get(i);
+          if (klass.isInstance(interaction)) {
+            index.matches.add(interaction);
+          }
+        }
+        classIndexes.put(klass, index);
+      }
+      //noinspection unchecked
+      return (List<I>) (List<?>) index.snapshot();
+    }
+  }
+
+  private static final class ClassIndex {
+
+    private final List<Interaction<?, ?>> matches = new ArrayList<>();
+    /**
+     * The snapshot returned by queries, or null if the matches changed since it was taken.
+     */
+    @Nullable
+    private List<Interaction<?, ?>> snapshot;
+
+    private void add(Interaction<?, ?> interaction) {
+      matches.add(interaction);
+      snapshot = null;
+    }
+
+    private void remove(Interaction<?, ?> interaction) {
+      if (removeIdentical(matches, interaction)) {
+        snapshot = null;
+      }
+    }
+
+    private List<Interaction<?, ?>> snapshot() {
+      if (snapshot == null) {
+        snapshot = Collections.unmodifiableList(new ArrayList<>(matches));
+      }
+      return snapshot;
+    }
+  }
+
+  /**
+   * The targets an interaction was added to, the subscriptions made while applying it, and the
+   * interactions it added in turn. Targets are held weakly so that an interaction does not keep
+   * them alive.
+   */
+  private static final class InteractionRecord {
+
+    private final Interaction<?, ?> interaction;
+    private final List<WeakReference<Object>> targets = new ArrayList<>();
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private final List<ReactiveProperty<?>> coalescedProperties = new ArrayList<>();
+    private final List<Interaction<?, ?>> children = new ArrayList<>();
+
+    private InteractionRecord(Interaction<?, ?> interaction) {
+      this.interaction = interaction;
+    }
   }
 }
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import android.os.Process;
+import android.support.v4.os.TraceCompat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.HashMap;
+
+/**
+ * Records begin and end events of sources, operator stages and property writes into a
+ * preallocated ring buffer, and exports them in the Chrome trace event format.
+ * <p>
+ * Exported traces can be opened in chrome://tracing or Perfetto. Recording does not allocate and
+ * only depends on {@link System#nanoTime()}, so traces can also be captured in local unit tests.
+ * When the buffer is full, the oldest events are overwritten.
+ * <p>
+ * Sections can also be forwarded to the system trace with {@link #setSystemTraceEnabled(boolean)}.
+ * <p>
+ * Recording should only be started and stopped on the main thread.
+ */
+public final class MotionTrace {
+
+  /**
+   * The maximum length of a section name accepted by {@link android.os.Trace}.
+   */
+  private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+  /**
+   * Whether sections are currently being recorded or forwarded to the system trace. Hooks check
+   * this before doing any work.
+   */
+  static boolean active;
+
+  private static boolean recording;
+  private static boolean systemTraceEnabled;
+
+  private static String[] names = new String[0];
+  private static boolean[] begins = new boolean[0];
+  private static long[] timestamps = new long[0];
+  private static long[] threads = new long[0];
+  private static int next;
+  private static int size;
+
+  private MotionTrace() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Clears the buffer and starts recording up to {@code capacity} of the most recent events.
+   */
+  public static void start(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    if (names.length != capacity) {
+      names = new String[capacity];
+      begins = new boolean[capacity];
+      timestamps = new long[capacity];
+      threads = new long[capacity];
+    }
+    clear();
+    recording = true;
+    updateActive();
+  }
+
+  /**
+   * Stops recording. The recorded events are kept until the next call to {@link #start(int)} or
+   * {@link #clear()}.
+   */
+  public static void stop() {
+    recording = false;
+    updateActive();
+  }
+
+  public static boolean isRecording() {
+    return recording;
+  }
+
+  /**
+   * Enables or disables forwarding of all sections to {@link android.os.Trace}, so that motion work
+   * shows up in system traces next to input and rendering. This is independent of recording and
+   * is disabled by default. It should only be toggled while no section is open.
+   */
+  public static void setSystemTraceEnabled(boolean enabled) {
+    systemTraceEnabled = enabled;
+    updateActive();
+  }
+
+  public static boolean isSystemTraceEnabled() {
+    return systemTraceEnabled;
+  }
+
+  private static void updateActive() {
+    active = recording || systemTraceEnabled;
+  }
+
+  /**
+   * Returns the given name shortened to the maximum length accepted by the system trace. Callers
+   * cache the result per node.
+   */
+  static String sectionName(String name) {
+    if (name.length() > MAX_SECTION_NAME_LENGTH) {
+      return name.substring(0, MAX_SECTION_NAME_LENGTH);
+    }
+    return name;
+  }
+
+  /**
+   * Discards all recorded events.
+   */
+  public static void clear() {
+    for (int i = 0; i < names.length; i++) {
+      names[i] = null;
+    }
+    next = 0;
+    size = 0;
+  }
+
+  /**
+   * Records the beginning of a section. The name should be cached by the caller so that recording
+   * does not allocate, and should be at most 127 characters long.
+   */
+  public static void beginSection(String name) {
+    if (recording) {
+      record(name, true);
+    }
+    if (systemTraceEnabled) {
+      TraceCompat.beginSection(name);
+    }
+  }
+
+  /**
+   * Records the end of the section with the given name.
+   */
+  public static void endSection(String name) {
+    if (systemTraceEnabled) {
+      TraceCompat.endSection();
+    }
+    if (recording) {
+      record(name, false);
+    }
+  }
+
+  private static void record(String name, boolean begin) {
+    int index = next;
+    names[index] = name;
+    begins[index] = begin;
+    timestamps[index] = System.nanoTime();
+    threads[index] = Thread.currentThread().getId();
+
+    next = (index + 1) % names.length;
+    if (size < names.length) {
+      size++;
+    }
+  }
+
+  /**
+   * Returns the recorded events as a Chrome trace event JSON document.
+   */
+  public static String toJson() {
+    StringWriter writer = new StringWriter();
+    try {
+      writeJson(writer);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return writer.toString();
+  }
+
+  /**
+   * Writes the recorded events as a Chrome trace event JSON document, oldest first. End events
+   * whose begin event was overwritten are omitted.
+   */
+  public static void writeJson(Writer writer) throws IOException {
+    int pid = Process.myPid();
+    HashMap<Long, Integer> depths = new HashMap<>();
+
+    writer.write("{\"traceEvents\":[");
+    boolean first = true;
+    int capacity = names.length;
+    for (int i = 0; i < size; i++) {
+      int index = (next - size + i + capacity) % capacity;
+      long thread = threads[index];
+      Integer depth = depths.get(thread);
+      int current = depth == null ? 0 : depth;
+
+      if (begins[index]) {
+        depths.put(thread, current + 1);
+      } else if (current == 0) {
+        continue;
+      } else {
+        depths.put(thread, current - 1);
+      }
+
+      if (!first) {
+        writer.write(',');
+      }
+      first = false;
+
+      writer.write("{\"name\":\"");
+      writeEscaped(writer, names[index]);
+      writer.write("\",\"cat\":\"motion\",\"ph\":\"");
+      writer.write(begins[index] ? 'B' : 'E');
+      writer.write("\",\"ts\":");
+      writeMicros(writer, timestamps[index]);
+      writer.write(",\"pid\":");
+      writer.write(Integer.toString(pid));
+      writer.write(",\"tid\":");
+      writer.write(Long.toString(thread));
+      writer.write('}');
+    }
+    writer.write("]}");
+  }
+
+  private static void writeMicros(Writer writer, long nanos) throws IOException {
+    writer.write(Long.toString(nanos / 1000));
+    writer.write('.');
+    String fraction = Long.toString(Math.abs(nanos % 1000));
+    for (int i = fraction.length(); i < 3; i++) {
+      writer.write('0');
+    }
+    writer.write(fraction);
+  }
+
+  private static void writeEscaped(Writer writer, String value) throws IOException {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        writer.write('\\');
+        writer.write(c);
+      } else if (c < 0x20) {
+        writer.write(String.format("\\u%04x", (int) c));
+      } else {
+        writer.write(c);
+      }
+    }
+  }
+}
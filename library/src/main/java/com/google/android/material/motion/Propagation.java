@@ -0,0 +1,209 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import java.util.ArrayList;
+
+/**
+ * Defers work that depends on several inputs to the end of a transaction, so that it runs once
+ * and observes consistent state.
+ * <p>
+ * A single input event can fan out into several streams that meet again downstream. For example,
+ * a drag gesture feeds both the initial velocity and the enabled state of a tossable spring.
+ * Values flow through the stream graph synchronously and depth-first. A node that reads several of
+ * those streams would otherwise react to each input separately and could see a half-updated
+ * state.
+ * <p>
+ * Such nodes schedule a {@link Reaction} instead of reacting directly. Reactions that are scheduled
+ * during a transaction run once, after all values of the transaction have propagated, in
+ * ascending order of their rank. Reactions that are scheduled outside of a transaction run
+ * immediately.
+ * <p>
+ * Ranks follow the depth of the stream graph: sources have depth 0, every operator stage adds one,
+ * and a property is one deeper than the deepest stream that a {@link MotionRuntime} writes to it.
+ * A reaction is ranked above the properties it reads with {@link Reaction#rankAfter}, so that it
+ * runs after the reactions those properties depend on. Values themselves still propagate
+ * depth-first; only the work of reactions is deferred.
+ * <p>
+ * While a reaction is {@link #attach(Reaction) attached}, transactions are opened around every
+ * {@link ReactiveProperty} write and every touch event. Otherwise there is nothing to defer, and
+ * writes and touch events propagate without one. Transactions may be nested. Propagation is
+ * confined to the main thread.
+ */
+public final class Propagation {
+
+  private static final ArrayList<Reaction> pending = new ArrayList<>();
+  private static int depth;
+  private static boolean flushing;
+  private static int attached;
+
+  private Propagation() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Opens a transaction. Every call must be balanced by a call to {@link #end()}.
+   */
+  public static void begin() {
+    depth++;
+  }
+
+  /**
+   * Closes a transaction. When the outermost transaction is closed, all scheduled reactions run.
+   */
+  public static void end() {
+    if (depth == 0) {
+      throw new IllegalStateException("end() called without a matching begin()");
+    }
+    depth--;
+    if (depth == 0 && !flushing) {
+      flush();
+    }
+  }
+
+  /**
+   * Schedules the reaction to run at the end of the current transaction. A reaction that is
+   * already scheduled is not scheduled again.
+   */
+  public static void schedule(Reaction reaction) {
+    if (reaction.scheduled) {
+      return;
+    }
+    reaction.scheduled = true;
+
+    // Keep the queue sorted by rank, and reactions of equal rank in scheduling order.
+    int index = pending.size();
+    while (index > 0 && pending.get(index - 1).rank > reaction.rank) {
+      index--;
+    }
+    pending.add(index, reaction);
+
+    if (depth == 0 && !flushing) {
+      flush();
+    }
+  }
+
+  /**
+   * Attaches the reaction, so that property writes and touch events open transactions in which it
+   * can be deferred. Nodes attach their reaction while they are connected to their inputs.
+   */
+  public static void attach(Reaction reaction) {
+    if (!reaction.attached) {
+      reaction.attached = true;
+      attached++;
+    }
+  }
+
+  /**
+   * Detaches a reaction that was attached with {@link #attach(Reaction)}.
+   */
+  public static void detach(Reaction reaction) {
+    if (reaction.attached) {
+      reaction.attached = false;
+      attached--;
+    }
+  }
+
+  /**
+   * Returns whether any reaction is attached. Writes and touch events only open a transaction if
+   * so.
+   */
+  public static boolean hasAttachedReactions() {
+    return attached > 0;
+  }
+
+  /**
+   * Returns whether a transaction is currently open.
+   */
+  public static boolean isInTransaction() {
+    return depth > 0 || flushing;
+  }
+
+  private static void flush() {
+    flushing = true;
+    try {
+      // Reactions may write to properties and schedule further reactions, which join the queue.
+      while (!pending.isEmpty()) {
+        Reaction reaction = pending.remove(0);
+        reaction.scheduled = false;
+        reaction.react();
+      }
+    } finally {
+      flushing = false;
+      for (int i = 0, count = pending.size(); i < count; i++) {
+        pending.get(i).scheduled = false;
+      }
+      pending.clear();
+    }
+  }
+
+  /**
+   * A unit of work that depends on several inputs and should run once per transaction.
+   */
+  public abstract static class Reaction {
+
+    private int rank;
+    private boolean scheduled;
+    private boolean attached;
+
+    /**
+     * Creates a reaction of rank 0. Use {@link #rankAfter(ReactiveProperty)} to rank it by the
+     * properties it reads.
+     */
+    protected Reaction() {
+      this(0);
+    }
+
+    /**
+     * Creates a reaction of the given rank. A reaction that reads values written by another
+     * reaction should have a higher rank than that reaction.
+     */
+    protected Reaction(int rank) {
+      this.rank = rank;
+    }
+
+    /**
+     * Raises the rank of this reaction above the depth of the given property, which this reaction
+     * reads. A scheduled reaction moves to its new place in the queue.
+     */
+    public final void rankAfter(ReactiveProperty<?> property) {
+      int rank = Math.max(this.rank, property.depth() + 1);
+      if (rank == this.rank) {
+        return;
+      }
+      if (scheduled) {
+        pending.remove(this);
+        scheduled = false;
+        this.rank = rank;
+        schedule(this);
+      } else {
+        this.rank = rank;
+      }
+    }
+
+    /**
+     * Returns the rank of this reaction.
+     */
+    public final int getRank() {
+      return rank;
+    }
+
+    /**
+     * Performs the work of this reaction.
+     */
+    protected abstract void react();
+  }
+}
@@ -16,33 +16,34 @@
 package com.google.android.material.motion;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.v4.util.SimpleArrayMap;
 import android.util.Property;
+import android.view.View;
 
 import com.google.android.indefinite.observable.IndefiniteObservable.Connector;
 import com.google.android.indefinite.observable.IndefiniteObservable.Disconnector;
 import com.google.android.indefinite.observable.IndefiniteObservable.Subscription;
 
-import java.util.List;
-import java.util.WeakHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-
 /**
  * A reactive property represents a subscribable, readable/writable value. Subscribers will receive
  * updates whenever {@link #onWrite(Object)} is invoked.
  */
 public abstract class ReactiveProperty<T> {
 
-  private static final WeakHashMap<Object, SimpleArrayMap<Property<?, ?>, ReactiveProperty<?>>>
-    targetProperties =
-    new WeakHashMap<>();
+  /**
+   * Reactive properties of targets that are not views, keyed by target identity. Views store their
+   * reactive properties in a tag instead.
+   */
+  private static final WeakIdentityMap<Object, SimpleArrayMap<Property<?, ?>, ReactiveProperty<?>>>
+    targetProperties = new WeakIdentityMap<>();
 
+  /**
+   * Returns the reactive property for the given target and property, creating it if needed.
+   * Repeated calls with the same arguments return the same instance.
+   */
   public static <T, O> ReactiveProperty<T> of(O target, Property<O, T> property) {
-    SimpleArrayMap<Property<?, ?>, ReactiveProperty<?>> properties = targetProperties.get(target);
-    if (properties == null) {
-      properties = new SimpleArrayMap<>();
-      targetProperties.put(target, properties);
-    }
+    SimpleArrayMap<Property<?, ?>, ReactiveProperty<?>> properties = propertiesOf(target);
 
     ReactiveProperty<?> reactiveProperty = properties.get(property);
     if (reactiveProperty == null) {
@@ -54,6 +55,28 @@ public abstract class ReactiveProperty<T> {
     return (ReactiveProperty<T>) reactiveProperty;
   }
 
+  private static SimpleArrayMap<Property<?, ?>, ReactiveProperty<?>> propertiesOf(Object target) {
+    if (target instanceof View) {
+      View view = (View) target;
+      //noinspection unchecked
+      SimpleArrayMap<Property<?, ?>, ReactiveProperty<?>> properties =
+        (SimpleArrayMap<Property<?, ?>, ReactiveProperty<?>>) view.getTag(
+          R.id.reactive_properties_tag);
+      if (properties == null) {
+        properties = new SimpleArrayMap<>();
+        view.setTag(R.id.reactive_properties_tag, properties);
+      }
+      return properties;
+    }
+
+    SimpleArrayMap<Property<?, ?>, ReactiveProperty<?>> properties = targetProperties.get(target);
+    if (properties == null) {
+      properties = new SimpleArrayMap<>();
+      targetProperties.put(target, properties);
+    }
+    return properties;
+  }
+
   public static <T> ReactiveProperty<T> of(T initialValue) {
     return new ValueReactiveProperty<>(initialValue);
   }
@@ -62,7 +85,74 @@ public abstract class ReactiveProperty<T> {
     return new ImmutableValueReactiveProperty<>(value);
   }
 
-  private final List<MotionObserver<T>> observers = new CopyOnWriteArrayList<>();
+  /**
+   * The observers of this property. This is null when there are no observers, the observer itself
+   * when there is exactly one, and an array of observers otherwise.
+   * <p>
+   * The array is never modified in place. Adding or removing an observer replaces it, so {@link
+   * #onWrite(Object)} can dispatch to a snapshot without allocating even if observers are added or
+   * removed during dispatch.
+   */
+  @Nullable
+  private Object observers;
+  @Nullable
+  private MotionObservable<T> stream;
+  @Nullable
+  private String sectionName;
+  @Nullable
+  private MotionGraph.Node graphNode;
+  @Nullable
+  private MotionMetrics.Node metricsNode;
+  /**
+   * One more than the depth of the deepest stream written to this property. See {@link
+   * Propagation}.
+   */
+  private int depth;
+
+  /**
+   * Returns the graph node of this property, creating it on first use.
+   */
+  final MotionGraph.Node graphNode() {
+    if (graphNode == null) {
+      graphNode =
+        MotionGraph.newNode(MotionGraph.Kind.PROPERTY, MotionMetrics.propertyNameOf(this));
+    }
+    return graphNode;
+  }
+
+  /**
+   * Returns the depth of this property in the stream graph.
+   */
+  final int depth() {
+    return depth;
+  }
+
+  /**
+   * Records that a stream of the given depth writes to this property.
+   */
+  final void addWriter(int streamDepth) {
+    depth = Math.max(depth, streamDepth + 1);
+  }
+
+  /**
+   * Returns the metrics node of writes to this property, registering it on first use and again
+   * after {@link MotionMetrics#reset()}.
+   */
+  final MotionMetrics.Node metricsNode() {
+    metricsNode =
+      MotionMetrics.register(metricsNode, MotionMetrics.Kind.WRITE, MotionMetrics.nameOf(this));
+    return metricsNode;
+  }
+
+  /**
+   * Returns the trace section name of writes to this property, creating it on first use.
+   */
+  final String sectionName() {
+    if (sectionName == null) {
+      sectionName = MotionTrace.sectionName("set " + MotionMetrics.propertyNameOf(this));
+    }
+    return sectionName;
+  }
 
   /**
    * Reads the property's value.
@@ -84,15 +174,32 @@ public abstract class ReactiveProperty<T> {
     return getStream().subscribe(observer);
   }
 
+  /**
+   * Returns the stream of the property's value.
+   * <p>
+   * The stream is created lazily and shared by every subscriber to this property. Subclasses may
+   * override this method to provide a different stream, which {@link #subscribe(MotionObserver)}
+   * then uses instead.
+   */
   public MotionObservable<T> getStream() {
-    return new MotionObservable<>(new Connector<MotionObserver<T>>() {
+    MotionObservable<T> stream = this.stream;
+    if (stream == null) {
+      stream = createStream();
+      this.stream = stream;
+    }
+    return stream;
+  }
+
+  private MotionObservable<T> createStream() {
+    return new MotionObservable<T>(new Connector<MotionObserver<T>>() {
 
       @NonNull
       @Override
       public Disconnector connect(final MotionObserver<T> observer) {
-        if (!observers.contains(observer)) {
-          observers.add(observer);
+        final MotionGraph.Edge graphEdge =
+          MotionGraph.enabled ? MotionGraph.connect(graphNode()) : null;
 
+        if (addObserver(observer)) {
           observer.next(read());
         }
 
@@ -100,20 +207,126 @@ public abstract class ReactiveProperty<T> {
 
           @Override
           public void disconnect() {
-            observers.remove(observer);
+            removeObserver(observer);
+
+            if (graphEdge != null) {
+              MotionGraph.disconnect(graphEdge);
+            }
           }
         };
       }
-    });
+    }) {
+
+      @Override
+      int depth() {
+        return ReactiveProperty.this.depth;
+      }
+    };
   }
 
   /**
-   * Subclasses should call this after every {@link #write(Object)}.
+   * Subclasses should call this after every {@link #write(Object)}. Observers are notified within
+   * a {@link Propagation} transaction while any reaction is attached.
    */
   protected final void onWrite(T value) {
-    for (MotionObserver<T> observer : observers) {
-      observer.next(value);
+    if (graphNode != null) {
+      graphNode.record();
+    }
+
+    Object observers = this.observers;
+    if (observers == null) {
+      return;
+    }
+
+    // Only reactions are deferred, so a transaction is only needed while one is attached.
+    if (!Propagation.hasAttachedReactions()) {
+      dispatch(observers, value);
+      return;
+    }
+    Propagation.begin();
+    try {
+      dispatch(observers, value);
+    } finally {
+      Propagation.end();
+    }
+  }
+
+  private void dispatch(Object observers, T value) {
+    if (observers instanceof MotionObserver) {
+      //noinspection unchecked
+      ((MotionObserver<T>) observers).next(value);
+    } else {
+      MotionObserver<?>[] array = (MotionObserver<?>[]) observers;
+      for (int i = 0; i < array.length; i++) {
+        //noinspection unchecked
+        ((MotionObserver<T>) array[i]).next(value);
+      }
+    }
+  }
+
+  /**
+   * Adds the observer if it is not already observing this property.
+   *
+   * @return whether the observer was added.
+   */
+  private boolean addObserver(MotionObserver<T> observer) {
+    Object observers = this.observers;
+    if (observers == null) {
+      this.observers = observer;
+      return true;
+    }
+
+    if (observers instanceof MotionObserver) {
+      if (observers == observer) {
+        return false;
+      }
+      this.observers = new MotionObserver<?>[]{(MotionObserver<?>) observers, observer};
+      return true;
+    }
+
+    MotionObserver<?>[] array = (MotionObserver<?>[]) observers;
+    for (MotionObserver<?> existing : array) {
+      if (existing == observer) {
+        return false;
+      }
     }
+    MotionObserver<?>[] grown = new MotionObserver<?>[array.length + 1];
+    System.arraycopy(array, 0, grown, 0, array.length);
+    grown[array.length] = observer;
+    this.observers = grown;
+    return true;
+  }
+
+  private void removeObserver(MotionObserver<T> observer) {
+    Object observers = this.observers;
+    if (observers == observer) {
+      this.observers = null;
+      return;
+    }
+    if (!(observers instanceof MotionObserver<?>[])) {
+      return;
+    }
+
+    MotionObserver<?>[] array = (MotionObserver<?>[]) observers;
+    int index = -1;
+    for (int i = 0; i < array.length; i++) {
+      if (array[i] == observer) {
+        index = i;
+        break;
+      }
+    }
+    if (index < 0) {
+      return;
+    }
+
+    if (array.length == 2) {
+      this.observers = array[1 - index];
+      return;
+    }
+    MotionObserver<?>[] shrunk = new MotionObserver<?>[array.length - 1];
+    System.arraycopy(array, 0, shrunk, 0, index);
+    System.arraycopy(array, index + 1, shrunk, index, array.length - index - 1);
+    this.observers = shrunk;
   }
 
   /**
@@ -136,9 +349,19 @@ public abstract class ReactiveProperty<T> {
 
     @Override
     public void write(T value) {
-      property.set(target, value);
-
-      onWrite(value);
+      if (MotionTrace.active) {
+        String section = sectionName();
+        MotionTrace.beginSection(section);
+        try {
+          property.set(target, value);
+          onWrite(value);
+        } finally {
+          MotionTrace.endSection(section);
+        }
+      } else {
+        property.set(target, value);
+        onWrite(value);
+      }
     }
   }
 
@@ -160,9 +383,19 @@ public abstract class ReactiveProperty<T> {
 
     @Override
     public void write(T value) {
-      this.value = value;
-
-      onWrite(value);
+      if (MotionTrace.active) {
+        String section = sectionName();
+        MotionTrace.beginSection(section);
+        try {
+          this.value = value;
+          onWrite(value);
+        } finally {
+          MotionTrace.endSection(section);
+        }
+      } else {
+        this.value = value;
+        onWrite(value);
+      }
     }
   }
 
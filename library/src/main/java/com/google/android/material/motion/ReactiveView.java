@@ -18,84 +18,167 @@ package com.google.android.material.motion;
 import android.annotation.TargetApi;
 import android.graphics.PointF;
 import android.os.Build;
+import android.support.annotation.Nullable;
 import android.view.View;
 
 import com.google.android.material.motion.properties.ViewProperties;
 
 /**
  * A ReactiveView is a view that wraps around an Android View class.
- * It contains Reactive Properties that you can subscribe to.
+ * It contains Reactive Properties that you can subscribe to. Each property is looked up once and
+ * then memoized.
  */
 public class ReactiveView {
   private final View view;
 
+  @Nullable
+  private ReactiveProperty<PointF> translation;
+  @Nullable
+  private ReactiveProperty<PointF> center;
+  @Nullable
+  private ReactiveProperty<PointF> scale;
+  @Nullable
+  private ReactiveProperty<PointF> pivot;
+  @Nullable
+  private ReactiveProperty<Integer> backgroundColor;
+  @Nullable
+  private ReactiveProperty<Float> translationX;
+  @Nullable
+  private ReactiveProperty<Float> translationY;
+  @Nullable
+  private ReactiveProperty<Float> translationZ;
+  @Nullable
+  private ReactiveProperty<Float> rotationX;
+  @Nullable
+  private ReactiveProperty<Float> rotationY;
+  @Nullable
+  private ReactiveProperty<Float> scaleX;
+  @Nullable
+  private ReactiveProperty<Float> scaleY;
+  @Nullable
+  private ReactiveProperty<Float> x;
+  @Nullable
+  private ReactiveProperty<Float> y;
+  @Nullable
+  private ReactiveProperty<Float> z;
+  @Nullable
+  private ReactiveProperty<Float> alpha;
+
   public ReactiveView(View view) {
     this.view = view;
   }
 
   public ReactiveProperty<PointF> translation() {
-    return ReactiveProperty.of(view, ViewProperties.TRANSLATION);
+    if (translation == null) {
+      translation = ReactiveProperty.of(view, ViewProperties.TRANSLATION);
+    }
+    return translation;
   }
 
   public ReactiveProperty<PointF> center() {
-    return ReactiveProperty.of(view, ViewProperties.CENTER);
+    if (center == null) {
+      center = ReactiveProperty.of(view, ViewProperties.CENTER);
+    }
+    return center;
   }
 
   public ReactiveProperty<PointF> scale() {
-    return ReactiveProperty.of(view, ViewProperties.SCALE);
+    if (scale == null) {
+      scale = ReactiveProperty.of(view, ViewProperties.SCALE);
+    }
+    return scale;
   }
 
   public ReactiveProperty<PointF> pivot() {
-    return ReactiveProperty.of(view, ViewProperties.PIVOT);
+    if (pivot == null) {
+      pivot = ReactiveProperty.of(view, ViewProperties.PIVOT);
+    }
+    return pivot;
   }
 
   public ReactiveProperty<Integer> backgroundColor() {
-    return ReactiveProperty.of(view, ViewProperties.BACKGROUND_COLOR);
+    if (backgroundColor == null) {
+      backgroundColor = ReactiveProperty.of(view, ViewProperties.BACKGROUND_COLOR);
+    }
+    return backgroundColor;
   }
 
   public ReactiveProperty<Float> translationX() {
-    return ReactiveProperty.of(view, View.TRANSLATION_X);
+    if (translationX == null) {
+      translationX = ReactiveProperty.of(view, View.TRANSLATION_X);
+    }
+    return translationX;
   }
 
   public ReactiveProperty<Float> translationY() {
-    return ReactiveProperty.of(view, View.TRANSLATION_Y);
+    if (translationY == null) {
+      translationY = ReactiveProperty.of(view, View.TRANSLATION_Y);
+    }
+    return translationY;
   }
 
   @TargetApi(Build.VERSION_CODES.LOLLIPOP)
   public ReactiveProperty<Float> translationZ() {
-    return ReactiveProperty.of(view, View.TRANSLATION_Z);
+    if (translationZ == null) {
+      translationZ = ReactiveProperty.of(view, View.TRANSLATION_Z);
+    }
+    return translationZ;
   }
 
   public ReactiveProperty<Float> rotationX() {
-    return ReactiveProperty.of(view, View.ROTATION_X);
+    if (rotationX == null) {
+      rotationX = ReactiveProperty.of(view, View.ROTATION_X);
+    }
+    return rotationX;
   }
 
   public ReactiveProperty<Float> rotationY() {
-    return ReactiveProperty.of(view, View.ROTATION_Y);
+    if (rotationY == null) {
+      rotationY = ReactiveProperty.of(view, View.ROTATION_Y);
+    }
+    return rotationY;
   }
 
   public ReactiveProperty<Float> scaleX() {
-    return ReactiveProperty.of(view, View.SCALE_X);
+    if (scaleX == null) {
+      scaleX = ReactiveProperty.of(view, View.SCALE_X);
+    }
+    return scaleX;
   }
 
   public ReactiveProperty<Float> scaleY() {
-    return ReactiveProperty.of(view, View.SCALE_Y);
+    if (scaleY == null) {
+      scaleY = ReactiveProperty.of(view, View.SCALE_Y);
+    }
+    return scaleY;
   }
 
   public ReactiveProperty<Float> x() {
-    return ReactiveProperty.of(view, View.X);
+    if (x == null) {
+      x = ReactiveProperty.of(view, View.X);
+    }
+    return x;
   }
 
   public ReactiveProperty<Float> y() {
-    return ReactiveProperty.of(view, View.Y);
+    if (y == null) {
+      y = ReactiveProperty.of(view, View.Y);
+    }
+    return y;
   }
 
   @TargetApi(Build.VERSION_CODES.LOLLIPOP)
   public ReactiveProperty<Float> z() {
-    return ReactiveProperty.of(view, View.Z);
+    if (z == null) {
+      z = ReactiveProperty.of(view, View.Z);
+    }
+    return z;
   }
 
   public ReactiveProperty<Float> alpha() {
-    return ReactiveProperty.of(view, View.ALPHA);
+    if (alpha == null) {
+      alpha = ReactiveProperty.of(view, View.ALPHA);
+    }
+    return alpha;
   }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import android.graphics.PointF;
+
+/**
+ * Controls whether point-valued operators emit a new {@link PointF} per event or reuse a single
+ * mutable instance that they own.
+ * <p>
+ * Reuse is disabled by default. When enabled, every emitted point is only valid until the
+ * emitting operator receives its next value, so observers must consume points synchronously.
+ * Observers that need to keep a point beyond {@link MotionObserver#next(Object)} must copy it
+ * with {@link #retain(PointF)}.
+ * <p>
+ * This should only be toggled on the main thread, before any streams are subscribed to.
+ */
+public final class ReusedPointF {
+
+  private static boolean enabled;
+
+  private ReusedPointF() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Enables or disables point reuse for all point-valued operators.
+   */
+  public static void setEnabled(boolean enabled) {
+    ReusedPointF.enabled = enabled;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns a point with the given coordinates. If reuse is enabled, {@code scratch} is updated
+   * and returned. Otherwise a new point is returned.
+   *
+   * @param scratch A point owned by the caller that is reused for every emission.
+   */
+  public static PointF obtain(PointF scratch, float x, float y) {
+    if (enabled) {
+      scratch.set(x, y);
+      return scratch;
+    }
+    return new PointF(x, y);
+  }
+
+  /**
+   * Returns a point that is safe to keep after the current event has been delivered. Copies the
+   * point if reuse is enabled.
+   */
+  public static PointF retain(PointF value) {
+    if (enabled) {
+      return new PointF(value.x, value.y);
+    }
+    return value;
+  }
+
+  /**
+   * Like {@link #retain(PointF)}, but copies into the given point instead of allocating a new one
+   * when reuse is enabled.
+   */
+  public static PointF retain(PointF value, PointF into) {
+    if (enabled) {
+      into.set(value);
+      return into;
+    }
+    return value;
+  }
+
+  /**
+   * Like {@link #retain(PointF)}, for values of any type. Only points are copied.
+   */
+  public static <T> T retainValue(T value) {
+    if (enabled && value instanceof PointF) {
+      PointF point = (PointF) value;
+      //noinspection unchecked
+      return (T) new PointF(point.x, point.y);
+    }
+    return value;
+  }
+
+  /**
+   * Like {@link #retain(PointF, PointF)}, for values of any type. Only points are copied.
+   */
+  public static <T> T retainValue(T value, PointF into) {
+    if (enabled && value instanceof PointF) {
+      into.set((PointF) value);
+      //noinspection unchecked
+      return (T) into;
+    }
+    return value;
+  }
+
+  /**
+   * Copies the value if it is a reused point. Used by the build channel, where several values are
+   * transformed by the same operation before any of them are consumed.
+   */
+  static <T> T retainBuildValue(T value) {
+    return retainValue(value);
+  }
+}
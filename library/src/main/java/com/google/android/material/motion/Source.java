@@ -16,6 +16,7 @@
 package com.google.android.material.motion;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.google.android.indefinite.observable.IndefiniteObservable.Connector;
 import com.google.android.indefinite.observable.IndefiniteObservable.Disconnector;
@@ -28,30 +29,77 @@ public abstract class Source<T> {
 
   private final Interaction<?, T> interaction;
 
+  @Nullable
+  private MotionObservable<T> stream;
+  @Nullable
+  private String enableSectionName;
+  @Nullable
+  private String disableSectionName;
+  /**
+   * The graph node of this source, created on the first connection while the graph is enabled.
+   */
+  @Nullable
+  private MotionGraph.Node graphNode;
+
   public Source(Interaction<?, T> interaction) {
     this.interaction = interaction;
   }
 
+  /**
+   * Returns the stream of this source. The stream is created lazily and shared by every
+   * subscriber.
+   */
   public final MotionObservable<T> getStream() {
+    if (stream == null) {
+      stream = createStream();
+    }
+    return stream;
+  }
+
+  private MotionObservable<T> createStream() {
     return new MotionObservable<>(new Connector<MotionObserver<T>>() {
 
       @NonNull
       @Override
-      public Disconnector connect(final MotionObserver<T> observer) {
-        onConnect(observer);
+      public Disconnector connect(MotionObserver<T> observer) {
+        final MotionGraph.Edge graphEdge;
+        MotionGraph.Node graphSubscriber = null;
+        if (MotionGraph.enabled) {
+          if (graphNode == null) {
+            graphNode = MotionGraph.newNode(MotionGraph.Kind.SOURCE, getClass().getSimpleName());
+          }
+          graphEdge = MotionGraph.connect(graphNode);
+          graphSubscriber = MotionGraph.beginSubscribe(graphNode);
+          // Subclasses emit to the observer directly, so the emitted values are counted here.
+          observer = MotionGraph.counting(graphNode, observer);
+        } else {
+          graphEdge = null;
+        }
+        final MotionObserver<T> connectedObserver = observer;
+
+        onConnect(connectedObserver);
 
         final Subscription enabledSubscription = interaction.enabled.getStream()
           .compose(dedupe())
           .subscribe(new SimpleMotionObserver<Boolean>() {
             @Override
             public void next(Boolean enabled) {
-              if (enabled) {
-                onEnable();
+              if (MotionTrace.active) {
+                String section = sectionName(enabled);
+                MotionTrace.beginSection(section);
+                try {
+                  dispatchEnabled(enabled);
+                } finally {
+                  MotionTrace.endSection(section);
+                }
               } else {
-                onDisable();
+                dispatchEnabled(enabled);
               }
             }
           });
+        if (graphEdge != null) {
+          MotionGraph.endSubscribe(graphSubscriber);
+        }
 
         return new Disconnector() {
 
@@ -61,13 +109,38 @@ public abstract class Source<T> {
             enabledSubscription.unsubscribe();
             // TODO: This will potentially cause onDisable() to be called twice.
             onDisable();
-            onDisconnect(observer);
+            onDisconnect(connectedObserver);
+
+            if (graphEdge != null) {
+              MotionGraph.disconnect(graphEdge);
+            }
           }
         };
       }
     });
   }
 
+  private void dispatchEnabled(boolean enabled) {
+    if (enabled) {
+      onEnable();
+    } else {
+      onDisable();
+    }
+  }
+
+  private String sectionName(boolean enabled) {
+    if (enabled) {
+      if (enableSectionName == null) {
+        enableSectionName = MotionTrace.sectionName(getClass().getSimpleName() + ".onEnable");
+      }
+      return enableSectionName;
+    }
+    if (disableSectionName == null) {
+      disableSectionName = MotionTrace.sectionName(getClass().getSimpleName() + ".onDisable");
+    }
+    return disableSectionName;
+  }
+
   protected abstract void onConnect(MotionObserver<T> observer);
 
   protected abstract void onEnable();
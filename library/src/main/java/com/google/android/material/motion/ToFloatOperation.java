@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+/**
+ * An operation that extracts unboxed float values from an object stream.
+ *
+ * @param <T> The incoming value type.
+ */
+public abstract class ToFloatOperation<T> {
+
+  public void preConnect(FloatMotionObserver observer) {
+  }
+
+  /**
+   * Extracts a float from the incoming value before passing it to the observer, or blocks the
+   * value.
+   *
+   * @param value The incoming value.
+   */
+  public abstract void next(FloatMotionObserver observer, T value);
+
+  public void postConnect(FloatMotionObserver observer) {
+  }
+
+  public void preDisconnect(FloatMotionObserver observer) {
+  }
+
+  public void postDisconnect(FloatMotionObserver observer) {
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2017-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import android.support.annotation.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * A map with weakly referenced keys that are compared by identity instead of {@link
+ * Object#equals(Object)}.
+ * <p>
+ * Entries are removed once their key has been garbage collected. Lookups do not allocate. This
+ * class is not thread safe.
+ */
+final class WeakIdentityMap<K, V> {
+
+  private final HashMap<Object, V> map = new HashMap<>();
+  private final ReferenceQueue<K> queue = new ReferenceQueue<>();
+  private final LookupKey lookupKey = new LookupKey();
+
+  @Nullable
+  V get(K key) {
+    expungeStaleEntries();
+
+    lookupKey.set(key);
+    V value = map.get(lookupKey);
+    lookupKey.set(null);
+    return value;
+  }
+
+  void put(K key, V value) {
+    expungeStaleEntries();
+
+    map.put(new WeakKey<>(key, queue), value);
+  }
+
+  @Nullable
+  V remove(K key) {
+    expungeStaleEntries();
+
+    lookupKey.set(key);
+    V value = map.remove(lookupKey);
+    lookupKey.set(null);
+    return value;
+  }
+
+  int size() {
+    expungeStaleEntries();
+
+    return map.size();
+  }
+
+  /**
+   * Returns a live view of the values whose keys have not been garbage collected.
+   */
+  Collection<V> values() {
+    expungeStaleEntries();
+
+    return map.values();
+  }
+
+  void clear() {
+    expungeStaleEntries();
+
+    map.clear();
+  }
+
+  private void expungeStaleEntries() {
+    Reference<? extends K> reference;
+    while ((reference = queue.poll()) != null) {
+      map.remove(reference);
+    }
+  }
+
+  private static final class WeakKey<K> extends WeakReference<K> {
+
+    private final int hash;
+
+    private WeakKey(K referent, ReferenceQueue<K> queue) {
+      super(referent, queue);
+      hash = System.identityHashCode(referent);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (o == this) {
+        return true;
+      }
+      Object referent = get();
+      if (referent == null) {
+        return false;
+      }
+      if (o instanceof WeakKey) {
+        return ((WeakKey<?>) o).get() == referent;
+      }
+      return o instanceof LookupKey && ((LookupKey) o).referent == referent;
+    }
+  }
+
+  /**
+   * A reusable key used to look up entries without allocating a {@link WeakKey}.
+   */
+  private static final class LookupKey {
+
+    @Nullable
+    private Object referent;
+    private int hash;
+
+    private void set(@Nullable Object referent) {
+      this.referent = referent;
+      this.hash = referent == null ? 0 : System.identityHashCode(referent);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof WeakKey && referent != null && ((WeakKey<?>) o).get() == referent;
+    }
+  }
+}
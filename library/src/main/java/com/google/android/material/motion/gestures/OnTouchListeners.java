@@ -20,6 +20,8 @@ import android.view.MotionEvent;
 import android.view.View;
 import android.view.View.OnTouchListener;
 
+import com.google.android.material.motion.MotionMetrics;
+import com.google.android.material.motion.Propagation;
 import com.google.android.material.motion.R;
 
 import java.util.List;
@@ -55,8 +57,23 @@ public class OnTouchListeners {
     public boolean onTouch(View v, MotionEvent event) {
       boolean handled = false;
 
-      for (OnTouchListener listener : listeners) {
-        handled |= listener.onTouch(v, event);
+      // Every stream fed by this event propagates within one transaction while a reaction is
+      // attached. Gesture and tap sources receive their events here, so the event time is marked
+      // for the whole propagation.
+      long input = MotionMetrics.beginInput(event.getEventTime());
+      boolean transaction = Propagation.hasAttachedReactions();
+      if (transaction) {
+        Propagation.begin();
+      }
+      try {
+        for (OnTouchListener listener : listeners) {
+          handled |= listener.onTouch(v, event);
+        }
+      } finally {
+        if (transaction) {
+          Propagation.end();
+        }
+        MotionMetrics.endInput(input);
       }
 
       return handled;
@@ -53,7 +53,18 @@ public class AdjustsAnchorPoint extends Interaction<View, Void> {
     MotionObservable<? extends GestureRecognizer> gestureStream =
       interaction.gestureStream.compose(onRecognitionState(CHANGED));
 
-    runtime.write(gestureStream.compose(pivot()), target, ViewProperties.PIVOT);
-    runtime.write(gestureStream.compose(anchored(target)), target, ViewProperties.ANCHOR_POINT_ADJUSTMENT);
+    // The anchor point adjustment is computed against the current pivot, so the pivot must be
+    // written before the adjustment of the same event is computed.
+    runtime.write(
+      gestureStream.compose(pivot()),
+      target,
+      ViewProperties.PIVOT,
+      MotionRuntime.WriteMode.IMMEDIATE);
+    // Adjustments are relative, so every value must be written rather than only the latest.
+    runtime.write(
+      gestureStream.compose(anchored(target)),
+      target,
+      ViewProperties.ANCHOR_POINT_ADJUSTMENT,
+      MotionRuntime.WriteMode.IMMEDIATE);
   }
 }
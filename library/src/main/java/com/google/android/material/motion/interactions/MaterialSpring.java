@@ -145,6 +145,13 @@ public class MaterialSpring<O, T> extends Interaction<O, T> {
     this.stream = system.create(this).getStream();
   }
 
+  /**
+   * Returns the type of the spring's values, as declared by its property.
+   */
+  public Class<T> getValueType() {
+    return property.getType();
+  }
+
   @Override
   public void apply(MotionRuntime runtime, O target, ConstraintApplicator<T> constraints) {
     runtime.write(constraints.apply(stream), target, property);
@@ -7,6 +7,7 @@ import android.view.View;
 
 import com.google.android.material.motion.MapOperation;
 import com.google.android.material.motion.Operation;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.gestures.GestureRecognizer;
 
 public final class Anchored {
@@ -23,6 +24,9 @@ public final class Anchored {
 
   public static <T extends GestureRecognizer> Operation<T, PointF> anchored(final View view) {
     return new MapOperation<T, PointF>() {
+
+      private final PointF point = new PointF();
+
       @Override
       public PointF transform(T gestureRecognizer) {
         array[0] = view.getPivotX();
@@ -30,7 +34,8 @@ public final class Anchored {
         GestureRecognizer.getTransformationMatrix(view, matrix, inverse);
         matrix.mapPoints(array);
 
-        PointF adjustment = new PointF(
+        PointF adjustment = ReusedPointF.obtain(
+          point,
           gestureRecognizer.getUntransformedCentroidX() - array[0],
           gestureRecognizer.getUntransformedCentroidY() - array[1]
         );
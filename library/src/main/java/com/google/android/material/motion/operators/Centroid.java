@@ -5,6 +5,7 @@ import android.support.annotation.VisibleForTesting;
 
 import com.google.android.material.motion.MapOperation;
 import com.google.android.material.motion.Operation;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.gestures.GestureRecognizer;
 
 public final class Centroid {
@@ -19,9 +20,12 @@ public final class Centroid {
    */
   public static <T extends GestureRecognizer> Operation<T, PointF> centroid() {
     return new MapOperation<T, PointF>() {
+
+      private final PointF point = new PointF();
+
       @Override
       public PointF transform(T value) {
-        return new PointF(value.getCentroidX(), value.getCentroidY());
+        return ReusedPointF.obtain(point, value.getCentroidX(), value.getCentroidY());
       }
     };
   }
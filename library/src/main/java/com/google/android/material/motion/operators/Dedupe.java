@@ -1,5 +1,6 @@
 package com.google.android.material.motion.operators;
 
+import android.graphics.PointF;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 
@@ -19,10 +20,22 @@ public final class Dedupe {
       private boolean emitted;
       @Nullable
       private T lastValue;
+      /**
+       * A copy of the last point. Reused points change in place, so points are compared by value.
+       */
+      private final PointF lastPoint = new PointF();
 
       @Override
       public boolean filter(T value) {
-        if (emitted && lastValue == value) {
+        boolean duplicate;
+        if (value instanceof PointF) {
+          PointF point = (PointF) value;
+          duplicate = emitted && lastValue instanceof PointF && lastPoint.equals(point.x, point.y);
+          lastPoint.set(point.x, point.y);
+        } else {
+          duplicate = emitted && lastValue == value;
+        }
+        if (duplicate) {
           return false;
         }
 
@@ -5,8 +5,10 @@ import android.os.Looper;
 import android.support.annotation.VisibleForTesting;
 import android.support.v4.util.SimpleArrayMap;
 
+import com.google.android.material.motion.MotionMetrics;
 import com.google.android.material.motion.MotionObserver;
 import com.google.android.material.motion.Operation;
+import com.google.android.material.motion.ReusedPointF;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
@@ -32,12 +34,21 @@ public class DelayBy {
       }
 
       @Override
-      public void next(final MotionObserver<T> observer, final T value) {
+      public void next(final MotionObserver<T> observer, T value) {
+        // The delayed value is still attributed to the input event that caused it.
+        final long inputNanos = MotionMetrics.inputNanos();
+        // Each delayed value needs its own copy of a reused point.
+        final T delayed = ReusedPointF.retainValue(value);
         final Runnable runnable = new Runnable() {
           @Override
           public void run() {
             runnables.get(observer).remove(this);
-            observer.next(value);
+            long input = MotionMetrics.resumeInput(inputNanos);
+            try {
+              observer.next(delayed);
+            } finally {
+              MotionMetrics.endInput(input);
+            }
           }
         };
 
@@ -4,6 +4,7 @@ import android.graphics.PointF;
 import android.support.annotation.VisibleForTesting;
 
 import com.google.android.material.motion.Operation;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.SameTypedMapOperation;
 
 public final class LockToXAxis {
@@ -18,9 +19,12 @@ public final class LockToXAxis {
    */
   public static Operation<PointF, PointF> lockToXAxis(final float xValue) {
     return new SameTypedMapOperation<PointF>() {
+
+      private final PointF point = new PointF();
+
       @Override
       public PointF transform(PointF value) {
-        return new PointF(xValue, value.y);
+        return ReusedPointF.obtain(point, xValue, value.y);
       }
     };
   }
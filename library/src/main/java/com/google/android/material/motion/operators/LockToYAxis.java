@@ -3,6 +3,7 @@ package com.google.android.material.motion.operators;
 import android.graphics.PointF;
 
 import com.google.android.material.motion.Operation;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.SameTypedMapOperation;
 
 public final class LockToYAxis {
@@ -11,9 +12,12 @@ public final class LockToYAxis {
    */
   public static Operation<PointF, PointF> lockToYAxis(final float yValue) {
     return new SameTypedMapOperation<PointF>() {
+
+      private final PointF point = new PointF();
+
       @Override
       public PointF transform(PointF value) {
-        return new PointF(value.x, yValue);
+        return ReusedPointF.obtain(point, value.x, yValue);
       }
     };
   }
@@ -3,8 +3,12 @@ package com.google.android.material.motion.operators;
 import android.support.annotation.VisibleForTesting;
 import android.util.Log;
 
+import com.google.android.material.motion.FloatMapOperation;
+import com.google.android.material.motion.FloatOperation;
 import com.google.android.material.motion.MapOperation;
+import com.google.android.material.motion.MotionLog;
 import com.google.android.material.motion.Operation;
+import com.google.android.material.motion.SameTypedMapOperation;
 
 public final class LogOp {
 
@@ -21,6 +25,10 @@ public final class LogOp {
     return log(Log.DEBUG, tag, prefix);
   }
 
+  /**
+   * Writes every value to the system log. This formats each value as it passes, so prefer {@link
+   * #record(String)} on hot paths.
+   */
   public static <T> Operation<T, T> log(final int priority, final String tag, final String prefix) {
     return new MapOperation<T, T>() {
       @Override
@@ -30,4 +38,74 @@ public final class LogOp {
       }
     };
   }
+
+  /**
+   * Records every value into the {@link MotionLog} ring buffer while it is recording. Values are
+   * only formatted when the buffer is dumped.
+   */
+  public static <T> Operation<T, T> record(String name) {
+    return record(name, 1);
+  }
+
+  /**
+   * Records one of every {@code sampleInterval} values into the {@link MotionLog} ring buffer
+   * while it is recording, starting with the first.
+   * <p>
+   * The operation forwards the build channel unchanged, so it can be placed in streams that drive
+   * springs. The build values, such as a spring's initial value and destination, are recorded
+   * too.
+   */
+  public static <T> Operation<T, T> record(String name, final int sampleInterval) {
+    checkSampleInterval(sampleInterval);
+    final int stream = MotionLog.register(name);
+    return new SameTypedMapOperation<T>() {
+
+      private int countdown;
+
+      @Override
+      public T transform(T value) {
+        if (MotionLog.isRecording() && --countdown <= 0) {
+          countdown = sampleInterval;
+          MotionLog.record(stream, value);
+        }
+        return value;
+      }
+    };
+  }
+
+  /**
+   * Records every value of a float stream into the {@link MotionLog} ring buffer while it is
+   * recording.
+   */
+  public static FloatOperation recordFloat(String name) {
+    return recordFloat(name, 1);
+  }
+
+  /**
+   * Records one of every {@code sampleInterval} values of a float stream into the {@link
+   * MotionLog} ring buffer while it is recording, starting with the first.
+   */
+  public static FloatOperation recordFloat(String name, final int sampleInterval) {
+    checkSampleInterval(sampleInterval);
+    final int stream = MotionLog.register(name);
+    return new FloatMapOperation() {
+
+      private int countdown;
+
+      @Override
+      public float transform(float value) {
+        if (MotionLog.isRecording() && --countdown <= 0) {
+          countdown = sampleInterval;
+          MotionLog.record(stream, value);
+        }
+        return value;
+      }
+    };
+  }
+
+  private static void checkSampleInterval(int sampleInterval) {
+    if (sampleInterval < 1) {
+      throw new IllegalArgumentException("sampleInterval must be positive: " + sampleInterval);
+    }
+  }
 }
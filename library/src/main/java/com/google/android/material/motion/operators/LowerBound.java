@@ -2,6 +2,8 @@ package com.google.android.material.motion.operators;
 
 import android.support.annotation.VisibleForTesting;
 
+import com.google.android.material.motion.FloatMapOperation;
+import com.google.android.material.motion.FloatOperation;
 import com.google.android.material.motion.Operation;
 import com.google.android.material.motion.SameTypedMapOperation;
 
@@ -23,4 +25,20 @@ public final class LowerBound {
       }
     };
   }
+
+  /**
+   * Clamps the incoming float stream to values greater than or equal to {@code lowerBound}
+   * without boxing.
+   */
+  public static FloatOperation floatLowerBound(final float lowerBound) {
+    return new FloatMapOperation() {
+      @Override
+      public float transform(float value) {
+        if (value < lowerBound) {
+          return lowerBound;
+        }
+        return value;
+      }
+    };
+  }
 }
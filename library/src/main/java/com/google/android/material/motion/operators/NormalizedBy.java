@@ -3,7 +3,9 @@ package com.google.android.material.motion.operators;
 import android.graphics.PointF;
 import android.support.annotation.VisibleForTesting;
 
+import com.google.android.material.motion.FloatOperation;
 import com.google.android.material.motion.Operation;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.SameTypedMapOperation;
 
 public final class NormalizedBy {
@@ -19,19 +21,29 @@ public final class NormalizedBy {
 
   public static Operation<PointF, PointF> normalizedAllBy(final float normal) {
     return new SameTypedMapOperation<PointF>() {
+
+      private final PointF point = new PointF();
+
       @Override
       public PointF transform(PointF value) {
-        return new PointF(value.x / normal, value.y / normal);
+        return ReusedPointF.obtain(point, value.x / normal, value.y / normal);
       }
     };
   }
 
   public static Operation<PointF, PointF> normalizedAllBy(final PointF normal) {
     return new SameTypedMapOperation<PointF>() {
+
+      private final PointF point = new PointF();
+
       @Override
       public PointF transform(PointF value) {
-        return new PointF(value.x / normal.x, value.y / normal.y);
+        return ReusedPointF.obtain(point, value.x / normal.x, value.y / normal.y);
       }
     };
   }
+
+  public static FloatOperation floatNormalizedBy(final float normal) {
+    return ScaledBy.floatScaledBy(1 / normal);
+  }
 }
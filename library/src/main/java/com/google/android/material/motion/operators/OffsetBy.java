@@ -3,7 +3,10 @@ package com.google.android.material.motion.operators;
 import android.graphics.PointF;
 import android.support.annotation.VisibleForTesting;
 
+import com.google.android.material.motion.FloatMapOperation;
+import com.google.android.material.motion.FloatOperation;
 import com.google.android.material.motion.Operation;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.SameTypedMapOperation;
 
 public final class OffsetBy {
@@ -24,18 +27,36 @@ public final class OffsetBy {
 
   public static Operation<PointF, PointF> offsetAllBy(final float offset) {
     return new SameTypedMapOperation<PointF>() {
+
+      private final PointF point = new PointF();
+
       @Override
       public PointF transform(PointF value) {
-        return new PointF(value.x + offset, value.y + offset);
+        return ReusedPointF.obtain(point, value.x + offset, value.y + offset);
       }
     };
   }
 
   public static Operation<PointF, PointF> offsetAllBy(final PointF offset) {
     return new SameTypedMapOperation<PointF>() {
+
+      private final PointF point = new PointF();
+
       @Override
       public PointF transform(PointF value) {
-        return new PointF(value.x + offset.x, value.y + offset.y);
+        return ReusedPointF.obtain(point, value.x + offset.x, value.y + offset.y);
+      }
+    };
+  }
+
+  /**
+   * Offsets the incoming float stream by {@code offset} without boxing.
+   */
+  public static FloatOperation floatOffsetBy(final float offset) {
+    return new FloatMapOperation() {
+      @Override
+      public float transform(float value) {
+        return value + offset;
       }
     };
   }
@@ -5,6 +5,7 @@ import android.support.annotation.VisibleForTesting;
 
 import com.google.android.material.motion.MapOperation;
 import com.google.android.material.motion.Operation;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.gestures.GestureRecognizer;
 
 public final class Pivot {
@@ -16,9 +17,13 @@ public final class Pivot {
 
   public static <T extends GestureRecognizer> Operation<T, PointF> pivot() {
     return new MapOperation<T, PointF>() {
+
+      private final PointF point = new PointF();
+
       @Override
       public PointF transform(T gestureRecognizer) {
-        PointF pivot = new PointF(
+        PointF pivot = ReusedPointF.obtain(
+          point,
           gestureRecognizer.getCentroidX(),
           gestureRecognizer.getCentroidY()
         );
@@ -1,5 +1,6 @@
 package com.google.android.material.motion.operators;
 
+import android.graphics.PointF;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
@@ -12,6 +13,7 @@ import com.google.android.material.motion.MotionObservable;
 import com.google.android.material.motion.MotionObserver;
 import com.google.android.material.motion.MotionObserver.SimpleMotionObserver;
 import com.google.android.material.motion.RawOperation;
+import com.google.android.material.motion.ReusedPointF;
 
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -34,6 +36,7 @@ public class Remember {
           private Subscription subscription;
           @Nullable
           private T lastValue;
+          private final PointF lastPoint = new PointF();
 
           @NonNull
           @Override
@@ -42,7 +45,8 @@ public class Remember {
               subscription = stream.subscribe(new SimpleMotionObserver<T>() {
                 @Override
                 public void next(T value) {
-                  lastValue = value;
+                  // Replayed later, so a reused point must be copied.
+                  lastValue = ReusedPointF.retainValue(value, lastPoint);
                   for (Observer<T> observer : observers) {
                     observer.next(value);
                   }
@@ -3,6 +3,8 @@ package com.google.android.material.motion.operators;
 import android.support.annotation.VisibleForTesting;
 import android.support.v4.util.SimpleArrayMap;
 
+import com.google.android.material.motion.FloatMapOperation;
+import com.google.android.material.motion.FloatOperation;
 import com.google.android.material.motion.MapOperation;
 import com.google.android.material.motion.MotionObserver;
 import com.google.android.material.motion.Operation;
@@ -107,4 +109,29 @@ public final class Rewrite {
       }
     };
   }
+
+  /**
+   * Linearly maps the incoming float stream from the given range to the destination range without
+   * boxing.
+   */
+  public static FloatOperation floatRewriteRange(
+    final float start, final float end, final float destinationStart, final float destinationEnd) {
+    return new FloatMapOperation() {
+      @Override
+      public float transform(float value) {
+        float position = value - start;
+
+        float vector = end - start;
+        if (vector == 0) {
+          return destinationStart;
+        }
+        float progress = position / vector;
+
+        float destinationVector = destinationEnd - destinationStart;
+        float destinationPosition = destinationVector * progress;
+
+        return destinationStart + destinationPosition;
+      }
+    };
+  }
 }
@@ -5,6 +5,7 @@ import android.graphics.RectF;
 import android.support.annotation.VisibleForTesting;
 
 import com.google.android.material.motion.Operation;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.SameTypedMapOperation;
 
 public final class RubberBanded {
@@ -20,11 +21,14 @@ public final class RubberBanded {
    */
   public static Operation<PointF, PointF> rubberBanded(final RectF rect, final float length) {
     return new SameTypedMapOperation<PointF>() {
+
+      private final PointF point = new PointF();
+
       @Override
       public PointF transform(PointF value) {
         float x = rubberBand(value.x, rect.left, rect.right, length);
         float y = rubberBand(value.y, rect.top, rect.bottom, length);
-        return new PointF(x, y);
+        return ReusedPointF.obtain(point, x, y);
       }
     };
   }
@@ -6,6 +6,7 @@ import android.view.View;
 
 import com.google.android.material.motion.MotionObserver;
 import com.google.android.material.motion.Operation;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.gestures.ScaleGestureRecognizer;
 
 import static com.google.android.material.motion.gestures.GestureRecognizer.BEGAN;
@@ -25,6 +26,8 @@ public final class Scaled {
   public static <T extends ScaleGestureRecognizer> Operation<T, PointF> scaled(final View view) {
     return new Operation<T, PointF>() {
 
+      private final PointF point = new PointF();
+
       private float initialScaleX;
       private float initialScaleY;
 
@@ -38,7 +41,7 @@ public final class Scaled {
           case CHANGED:
             float scale = gestureRecognizer.getScale();
 
-            observer.next(new PointF(initialScaleX * scale, initialScaleY * scale));
+            observer.next(ReusedPointF.obtain(point, initialScaleX * scale, initialScaleY * scale));
             break;
         }
       }
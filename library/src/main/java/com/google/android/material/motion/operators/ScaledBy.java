@@ -3,7 +3,10 @@ package com.google.android.material.motion.operators;
 import android.graphics.PointF;
 import android.support.annotation.VisibleForTesting;
 
+import com.google.android.material.motion.FloatMapOperation;
+import com.google.android.material.motion.FloatOperation;
 import com.google.android.material.motion.Operation;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.SameTypedMapOperation;
 
 public final class ScaledBy {
@@ -24,18 +27,36 @@ public final class ScaledBy {
 
   public static Operation<PointF, PointF> scaledAllBy(final float scale) {
     return new SameTypedMapOperation<PointF>() {
+
+      private final PointF point = new PointF();
+
       @Override
       public PointF transform(PointF value) {
-        return new PointF(value.x * scale, value.y * scale);
+        return ReusedPointF.obtain(point, value.x * scale, value.y * scale);
       }
     };
   }
 
   public static Operation<PointF, PointF> scaledAllBy(final PointF scale) {
     return new SameTypedMapOperation<PointF>() {
+
+      private final PointF point = new PointF();
+
       @Override
       public PointF transform(PointF value) {
-        return new PointF(value.x * scale.x, value.y * scale.y);
+        return ReusedPointF.obtain(point, value.x * scale.x, value.y * scale.y);
+      }
+    };
+  }
+
+  /**
+   * Scales the incoming float stream by {@code scale} without boxing.
+   */
+  public static FloatOperation floatScaledBy(final float scale) {
+    return new FloatMapOperation() {
+      @Override
+      public float transform(float value) {
+        return value * scale;
       }
     };
   }
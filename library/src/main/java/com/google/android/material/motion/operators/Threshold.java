@@ -3,6 +3,7 @@ package com.google.android.material.motion.operators;
 import android.support.annotation.IntDef;
 import android.support.annotation.VisibleForTesting;
 
+import com.google.android.material.motion.FloatToObjectOperation;
 import com.google.android.material.motion.MotionObserver;
 import com.google.android.material.motion.Operation;
 
@@ -48,4 +49,85 @@ public final class Threshold {
       }
     };
   }
+
+  /**
+   * Emits the {@link ThresholdSide} of each incoming float value relative to {@code threshold}
+   * without boxing the incoming values.
+   */
+  public static FloatToObjectOperation<Integer> floatThreshold(float threshold) {
+    return floatThresholdRange(threshold, threshold, 0f);
+  }
+
+  /**
+   * Like {@link #floatThreshold(float)}, but a value must cross the threshold by more than
+   * {@code hysteresis} before the emitted side changes.
+   */
+  public static FloatToObjectOperation<Integer> floatThreshold(float threshold, float hysteresis) {
+    return floatThresholdRange(threshold, threshold, hysteresis);
+  }
+
+  /**
+   * Emits the {@link ThresholdSide} of each incoming float value relative to the range
+   * [{@code min}, {@code max}] without boxing the incoming values.
+   */
+  public static FloatToObjectOperation<Integer> floatThresholdRange(float min, float max) {
+    return floatThresholdRange(min, max, 0f);
+  }
+
+  /**
+   * Like {@link #floatThresholdRange(float, float)}, but once a side has been emitted a value must
+   * move past the range boundary by more than {@code hysteresis} before the emitted side changes.
+   * This prevents noisy input from flickering between sides.
+   * <p>
+   * The emitted {@link ThresholdSide} values are within the {@link Integer} cache, so no
+   * allocations are made per event.
+   */
+  public static FloatToObjectOperation<Integer> floatThresholdRange(
+    final float min, final float max, final float hysteresis) {
+    return new FloatToObjectOperation<Integer>() {
+
+      private boolean emitted;
+      @ThresholdSide
+      private int lastSide;
+
+      @Override
+      public void next(MotionObserver<Integer> observer, float value) {
+        if (min > max) {
+          return;
+        }
+
+        float effectiveMin = min;
+        float effectiveMax = max;
+        if (emitted) {
+          switch (lastSide) {
+            case ThresholdSide.BELOW:
+              effectiveMin = min + hysteresis;
+              effectiveMax = max + hysteresis;
+              break;
+            case ThresholdSide.WITHIN:
+              effectiveMin = min - hysteresis;
+              effectiveMax = max + hysteresis;
+              break;
+            case ThresholdSide.ABOVE:
+              effectiveMin = min - hysteresis;
+              effectiveMax = max - hysteresis;
+              break;
+          }
+        }
+
+        @ThresholdSide int side;
+        if (value < effectiveMin) {
+          side = ThresholdSide.BELOW;
+        } else if (value > effectiveMax) {
+          side = ThresholdSide.ABOVE;
+        } else {
+          side = ThresholdSide.WITHIN;
+        }
+
+        lastSide = side;
+        emitted = true;
+        observer.next(side);
+      }
+    };
+  }
 }
@@ -9,6 +9,7 @@ import com.google.android.material.motion.MotionObserver;
 import com.google.android.material.motion.MotionObserver.SimpleMotionObserver;
 import com.google.android.material.motion.Operation;
 import com.google.android.material.motion.ReactiveProperty;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.gestures.DragGestureRecognizer;
 import com.google.android.material.motion.properties.ViewProperties;
 
@@ -30,6 +31,8 @@ public final class Translated {
     final View view) {
     return new Operation<T, PointF>() {
 
+      private final PointF point = new PointF();
+
       private Subscription adjustmentSubscription;
 
       private float initialTranslationX;
@@ -63,7 +66,8 @@ public final class Translated {
             float translationX = gestureRecognizer.getTranslationX();
             float translationY = gestureRecognizer.getTranslationY();
 
-            observer.next(new PointF(
+            observer.next(ReusedPointF.obtain(
+              point,
               initialTranslationX + adjustmentX + translationX,
               initialTranslationY + adjustmentY + translationY
             ));
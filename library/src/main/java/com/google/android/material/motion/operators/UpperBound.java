@@ -2,6 +2,8 @@ package com.google.android.material.motion.operators;
 
 import android.support.annotation.VisibleForTesting;
 
+import com.google.android.material.motion.FloatMapOperation;
+import com.google.android.material.motion.FloatOperation;
 import com.google.android.material.motion.Operation;
 import com.google.android.material.motion.SameTypedMapOperation;
 
@@ -23,4 +25,20 @@ public final class UpperBound {
       }
     };
   }
+
+  /**
+   * Clamps the incoming float stream to values less than or equal to {@code upperBound} without
+   * boxing.
+   */
+  public static FloatOperation floatUpperBound(final float upperBound) {
+    return new FloatMapOperation() {
+      @Override
+      public float transform(float value) {
+        if (value > upperBound) {
+          return upperBound;
+        }
+        return value;
+      }
+    };
+  }
 }
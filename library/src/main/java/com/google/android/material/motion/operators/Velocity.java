@@ -5,6 +5,7 @@ import android.support.annotation.VisibleForTesting;
 
 import com.google.android.material.motion.MotionObserver;
 import com.google.android.material.motion.Operation;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.gestures.DragGestureRecognizer;
 import com.google.android.material.motion.gestures.GestureRecognizer;
 
@@ -17,10 +18,13 @@ public final class Velocity {
 
   public static <T extends DragGestureRecognizer> Operation<T, PointF> velocity() {
     return new Operation<T, PointF>() {
+
+      private final PointF point = new PointF();
+
       @Override
       public void next(MotionObserver<PointF> observer, T value) {
         if (value.getState() == GestureRecognizer.RECOGNIZED) {
-          observer.next(new PointF(value.getVelocityX(), value.getVelocityY()));
+          observer.next(ReusedPointF.obtain(point, value.getVelocityX(), value.getVelocityY()));
         }
       }
     };
@@ -3,8 +3,10 @@ package com.google.android.material.motion.operators;
 import android.graphics.PointF;
 import android.support.annotation.VisibleForTesting;
 
+import com.google.android.material.motion.FloatMotionObserver;
 import com.google.android.material.motion.MapOperation;
 import com.google.android.material.motion.Operation;
+import com.google.android.material.motion.ToFloatOperation;
 
 public final class Y {
 
@@ -24,4 +26,16 @@ public final class Y {
       }
     };
   }
+
+  /**
+   * Extract the y value from the incoming PointF stream without boxing it.
+   */
+  public static ToFloatOperation<PointF> floatY() {
+    return new ToFloatOperation<PointF>() {
+      @Override
+      public void next(FloatMotionObserver observer, PointF value) {
+        observer.next(value.y);
+      }
+    };
+  }
 }
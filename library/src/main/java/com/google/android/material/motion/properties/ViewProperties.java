@@ -25,6 +25,7 @@ import android.util.Property;
 import android.view.View;
 
 import com.google.android.material.motion.R;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.springs.PointFTypeVectorizer;
 import com.google.android.material.motion.springs.TypeVectorizer;
 
@@ -123,7 +124,14 @@ public final class ViewProperties {
 
       @Override
       public void set(View object, PointF adjustment) {
-        super.set(object, adjustment);
+        if (ReusedPointF.isEnabled()) {
+          // The adjustment is kept in a tag, so copy it into a point owned by the view.
+          Object stored = object.getTag(R.id.gesture_anchor_point_adjustment_tag);
+          super.set(object, ReusedPointF.retain(
+            adjustment, stored instanceof PointF ? (PointF) stored : new PointF()));
+        } else {
+          super.set(object, adjustment);
+        }
 
         object.setTranslationX(object.getTranslationX() + adjustment.x);
         object.setTranslationY(object.getTranslationY() + adjustment.y);
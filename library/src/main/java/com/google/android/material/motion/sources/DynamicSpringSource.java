@@ -15,11 +15,15 @@
  */
 package com.google.android.material.motion.sources;
 
-import android.annotation.SuppressLint;
+import android.os.Build;
 import android.support.animation.DynamicAnimation;
+import android.support.animation.DynamicAnimation.OnAnimationUpdateListener;
 import android.support.animation.DynamicAnimation.ViewProperty;
+import android.support.animation.FloatPropertyCompat;
 import android.support.animation.SpringAnimation;
 import android.support.animation.SpringForce;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
 import android.support.v4.util.SimpleArrayMap;
 import android.util.Property;
 import android.view.View;
@@ -28,17 +32,32 @@ import com.google.android.indefinite.observable.IndefiniteObservable.Subscriptio
 import com.google.android.material.motion.MotionBuilder;
 import com.google.android.material.motion.MotionObserver;
 import com.google.android.material.motion.MotionObserver.SimpleMotionObserver;
+import com.google.android.material.motion.MotionTrace;
+import com.google.android.material.motion.Propagation;
+import com.google.android.material.motion.Propagation.Reaction;
 import com.google.android.material.motion.ReactiveProperty;
 import com.google.android.material.motion.ReactiveProperty.PropertyReactiveProperty;
 import com.google.android.material.motion.interactions.MaterialSpring;
 import com.google.android.material.motion.properties.ViewProperties;
 import com.google.android.material.motion.properties.ViewProperties.DerivativeProperty;
+import com.google.android.material.motion.springs.TypeVectorizer;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A source for physics springs.
+ * <p>
+ * Float properties of any object are animated directly, using the dynamic animation counterparts of
+ * view properties where they exist. Any other reactive property, such as a color or a value-backed
+ * property, is animated one vectorized component at a time and written once per frame. All springs
+ * step within the support library's single frame callback.
+ * <p>
+ * Springs are retargeted in place: each animated property keeps its {@link SpringAnimation} and
+ * {@link SpringForce} while the source is enabled, and later changes only update them. A running
+ * animation applies a new destination on its next frame, so several changes within a frame cost a
+ * single step. Updating the destination of a running spring does not allocate.
  */
 public final class DynamicSpringSource<T> extends SpringSource<T> {
 
@@ -49,70 +68,88 @@ public final class DynamicSpringSource<T> extends SpringSource<T> {
     }
   };
 
+  private static final String BUILD_SECTION = "DynamicSpringSource.build";
+
   private final MaterialSpring<?, T> interaction;
 
   private final DynamicSpringBuilder<T> builder;
-  private final Set<MotionObserver<T>> observers = new HashSet<>();
+  private final List<MotionObserver<T>> observers = new ArrayList<>();
+
+  /**
+   * The values passed down the build channel, reused for every build. The array has the runtime
+   * type of the values, because observers that bind the value type, such as {@link
+   * com.google.android.material.motion.FloatMotionObserver}, receive it through a casting bridge.
+   */
+  private final T[] buildValues;
+  @Nullable
+  private T initialValue;
+  @Nullable
+  private T initialVelocity;
 
   private Subscription destinationSubscription;
   private Subscription frictionSubscription;
   private Subscription tensionSubscription;
 
-  private boolean initialized;
+  private boolean enabled;
 
   public DynamicSpringSource(MaterialSpring<?, T> interaction) {
     super(interaction);
     this.interaction = interaction;
     builder = new DynamicSpringBuilder<>(interaction);
+    buildValues = newBuildValues(interaction.getValueType());
+  }
+
+  private static <T> T[] newBuildValues(Class<T> type) {
+    Class<?> componentType = type;
+    if (type.isPrimitive()) {
+      componentType = type == float.class ? Float.class : Object.class;
+    }
+    //noinspection unchecked
+    return (T[]) Array.newInstance(componentType, 3);
+  }
+
+  /**
+   * Returns the animation that drives the given float property of the target, or null if it is not
+   * animated.
+   */
+  @VisibleForTesting
+  @Nullable
+  SpringAnimation animationOf(Object target, Property<?, Float> property) {
+    DynamicSpringBuilder.Channel channel =
+      builder.channelOf(target, builder.floatPropertyOf(property));
+    return channel != null ? channel.animation : null;
   }
 
   @Override
   protected void onConnect(MotionObserver<T> observer) {
-    observers.add(observer);
+    if (!observers.contains(observer)) {
+      observers.add(observer);
+    }
+    Propagation.attach(buildReaction);
   }
 
   @Override
   protected void onEnable() {
-    initialized = false;
-
-    tensionSubscription = interaction.tension.subscribe(new SimpleMotionObserver<Float>() {
-      @Override
-      public void next(Float value) {
-        startBuild();
-      }
-    });
-    frictionSubscription = interaction.friction.subscribe(new SimpleMotionObserver<Float>() {
-      @Override
-      public void next(Float value) {
-        startBuild();
-      }
-    });
-    destinationSubscription = interaction.destination.subscribe(new SimpleMotionObserver<T>() {
-      @Override
-      public void next(T value) {
-        startBuild();
-      }
-    });
-
-    initialized = true;
-    startBuild();
-  }
-
-  private void startBuild() {
-    if (initialized) {
-      for (MotionObserver<T> observer : observers) {
-        //noinspection unchecked
-        observer.build(
-          builder,
-          interaction.initialValue.read(),
-          interaction.initialVelocity.read(),
-          interaction.destination.read());
-      }
+    enabled = true;
+
+    rankAfterParameters(buildReaction, interaction);
+
+    // Subscribing emits the current values. Together they must result in a single build.
+    Propagation.begin();
+    try {
+      tensionSubscription = interaction.tension.subscribe(coefficientObserver);
+      frictionSubscription = interaction.friction.subscribe(coefficientObserver);
+      destinationSubscription = interaction.destination.subscribe(destinationObserver);
+      Propagation.schedule(buildReaction);
+    } finally {
+      Propagation.end();
     }
   }
 
   @Override
   protected void onDisable() {
+    enabled = false;
+
     if (tensionSubscription != null) {
       tensionSubscription.unsubscribe();
       frictionSubscription.unsubscribe();
@@ -125,138 +162,300 @@ public final class DynamicSpringSource<T> extends SpringSource<T> {
   @Override
   protected void onDisconnect(MotionObserver<T> observer) {
     observers.remove(observer);
+    if (observers.isEmpty()) {
+      Propagation.detach(buildReaction);
+    }
   }
 
+  /**
+   * Starts or retargets the spring once per transaction, after the initial value, initial
+   * velocity, destination and coefficients have all been updated.
+   */
+  private final Reaction buildReaction = new Reaction() {
+    @Override
+    protected void react() {
+      if (!enabled) {
+        return;
+      }
+      MotionTrace.beginSection(BUILD_SECTION);
+      try {
+        // The initial value and velocity only seed new animations, so they are read again only once
+        // the builder has no animations left to retarget.
+        if (!builder.hasAnimations()) {
+          initialValue = interaction.initialValue.read();
+          initialVelocity = interaction.initialVelocity.read();
+        }
+        T destination = interaction.destination.read();
+
+        for (int i = 0, count = observers.size(); i < count; i++) {
+          // Operators transform the values in place, so they are refilled for every observer.
+          buildValues[0] = initialValue;
+          buildValues[1] = initialVelocity;
+          buildValues[2] = destination;
+          observers.get(i).build(builder, buildValues);
+        }
+      } finally {
+        MotionTrace.endSection(BUILD_SECTION);
+      }
+    }
+  };
+
+  private final MotionObserver<Float> coefficientObserver = new SimpleMotionObserver<Float>() {
+    @Override
+    public void next(Float value) {
+      builder.invalidateCoefficients();
+      Propagation.schedule(buildReaction);
+    }
+  };
+
+  private final MotionObserver<T> destinationObserver = new SimpleMotionObserver<T>() {
+    @Override
+    public void next(T value) {
+      Propagation.schedule(buildReaction);
+    }
+  };
+
   private static class DynamicSpringBuilder<T> extends MotionBuilder<T> {
 
+    /**
+     * The smallest change in value that animations of properties without a dynamic animation
+     * counterpart resolve. Their units are unknown, so this is the finest of the support library's
+     * thresholds.
+     */
+    private static final float MIN_VISIBLE_CHANGE = DynamicAnimation.MIN_VISIBLE_CHANGE_SCALE;
+
+    /**
+     * The dynamic animation counterpart of each view property. Built once and never modified.
+     */
+    private static final SimpleArrayMap<Property<?, Float>, FloatPropertyCompat<?>>
+      VIEW_PROPERTIES = createViewProperties();
+
     private final MaterialSpring<?, T> interaction;
-    private final SimpleArrayMap<Key, SpringAnimation> animations = new SimpleArrayMap<>();
+    private final List<Channel> channels = new ArrayList<>();
+    private final List<VectorTarget<T>> vectorTargets = new ArrayList<>();
+    /**
+     * The adapters of the other properties animated by this spring, so that each property keeps a
+     * single animatable identity.
+     */
+    private final SimpleArrayMap<Property<?, Float>, FloatPropertyCompat<?>> adapters =
+      new SimpleArrayMap<>();
+
+    private final float[] initialValues;
+    private final float[] initialVelocities;
+    private final float[] destinations;
+
+    private boolean coefficientsChanged = true;
+    private float stiffness;
+    private float dampingRatio;
 
     public DynamicSpringBuilder(MaterialSpring<?, T> interaction) {
       this.interaction = interaction;
+
+      int length = interaction.vectorizer.getVectorLength();
+      initialValues = new float[length];
+      initialVelocities = new float[length];
+      destinations = new float[length];
+    }
+
+    private static SimpleArrayMap<Property<?, Float>, FloatPropertyCompat<?>>
+    createViewProperties() {
+      SimpleArrayMap<Property<?, Float>, FloatPropertyCompat<?>> properties =
+        new SimpleArrayMap<>();
+      properties.put(View.TRANSLATION_X, DynamicAnimation.TRANSLATION_X);
+      properties.put(View.TRANSLATION_Y, DynamicAnimation.TRANSLATION_Y);
+      properties.put(View.SCALE_X, DynamicAnimation.SCALE_X);
+      properties.put(View.SCALE_Y, DynamicAnimation.SCALE_Y);
+      properties.put(View.ROTATION, DynamicAnimation.ROTATION);
+      properties.put(View.ROTATION_X, DynamicAnimation.ROTATION_X);
+      properties.put(View.ROTATION_Y, DynamicAnimation.ROTATION_Y);
+      properties.put(View.X, DynamicAnimation.X);
+      properties.put(View.Y, DynamicAnimation.Y);
+      properties.put(View.ALPHA, DynamicAnimation.ALPHA);
+      properties.put(ViewProperties.SCROLL_X, DynamicAnimation.SCROLL_X);
+      properties.put(ViewProperties.SCROLL_Y, DynamicAnimation.SCROLL_Y);
+      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+        properties.put(View.TRANSLATION_Z, DynamicAnimation.TRANSLATION_Z);
+        properties.put(View.Z, DynamicAnimation.Z);
+      }
+      return properties;
+    }
+
+    private <O> FloatPropertyCompat<O> floatPropertyOf(Property<O, Float> property) {
+      FloatPropertyCompat<?> floatProperty = VIEW_PROPERTIES.get(property);
+      if (floatProperty == null) {
+        floatProperty = adapters.get(property);
+      }
+      if (floatProperty == null) {
+        floatProperty = new PropertyAdapter<>(property);
+        adapters.put(property, floatProperty);
+      }
+      //noinspection unchecked
+      return (FloatPropertyCompat<O>) floatProperty;
+    }
+
+    /**
+     * Returns whether any property has an animation that can be retargeted.
+     */
+    boolean hasAnimations() {
+      return !channels.isEmpty();
+    }
+
+    /**
+     * Marks the tension or friction as changed, so that the forces are updated on the next start.
+     */
+    void invalidateCoefficients() {
+      coefficientsChanged = true;
     }
 
     @Override
     public void start(ReactiveProperty<T> property, T[] values) {
-      float[] initialValues = new float[interaction.vectorizer.getVectorLength()];
-      float[] initialVelocities = new float[interaction.vectorizer.getVectorLength()];
-      float[] destinations = new float[interaction.vectorizer.getVectorLength()];
+      updateCoefficients();
 
       interaction.vectorizer.vectorize(values[0], initialValues);
       interaction.vectorizer.vectorize(values[1], initialVelocities);
       interaction.vectorizer.vectorize(values[2], destinations);
 
-      startAnimations(
-        (PropertyReactiveProperty<View, T>) property,
-        initialValues,
-        initialVelocities,
-        destinations);
+      if (property instanceof PropertyReactiveProperty) {
+        //noinspection unchecked
+        if (startAnimations((PropertyReactiveProperty<Object, T>) property)) {
+          return;
+        }
+      }
+      startVectorAnimations(property);
     }
 
-    private void startAnimations(
-      PropertyReactiveProperty<View, T> reactiveProperty,
-      float[] initialValues,
-      float[] initialVelocities,
-      float[] destinations) {
-      View target = reactiveProperty.target;
-      Property<View, T> property = reactiveProperty.property;
+    private void updateCoefficients() {
+      if (!coefficientsChanged) {
+        return;
+      }
+      coefficientsChanged = false;
+
+      stiffness = stiffnessFromOrigamiValue(interaction.tension.read());
+      dampingRatio = dampingRatioFromOrigamiValue(stiffness, interaction.friction.read());
+      for (int i = 0, count = channels.size(); i < count; i++) {
+        SpringForce force = channels.get(i).force;
+        force.setStiffness(stiffness);
+        force.setDampingRatio(dampingRatio);
+      }
+    }
+
+    /**
+     * Animates the float properties behind the given reactive property directly.
+     *
+     * @return whether the property is backed by float properties.
+     */
+    private boolean startAnimations(PropertyReactiveProperty<Object, T> reactiveProperty) {
+      Object target = reactiveProperty.target;
+      Property<Object, T> property = reactiveProperty.property;
 
       if (property instanceof DerivativeProperty) {
-        DerivativeProperty<View, T> derivative = (DerivativeProperty<View, T>) property;
+        DerivativeProperty<Object, T> derivative = (DerivativeProperty<Object, T>) property;
         for (int i = 0; i < derivative.vectorizer.getVectorLength(); i++) {
           startAnimation(
             target,
-            derivative.properties[i],
+            floatPropertyOf(derivative.properties[i]),
             derivative.setterTransformation(target, initialValues[i]),
             derivative.setterTransformation(target, initialVelocities[i]),
             derivative.setterTransformation(target, destinations[i]));
         }
+        return true;
       } else if (property.getType() == Float.class) {
         //noinspection unchecked
         startAnimation(
           target,
-          (Property<View, Float>) property,
+          floatPropertyOf((Property<Object, Float>) (Property<Object, ?>) property),
           initialValues[0],
           initialVelocities[0],
           destinations[0]);
-      } else {
-        throw new IllegalArgumentException("Property not supported: " + property);
+        return true;
       }
+      return false;
+    }
+
+    /**
+     * Animates each component of the vectorized value of the given property, and writes the
+     * composed value to the property.
+     */
+    private void startVectorAnimations(ReactiveProperty<T> property) {
+      VectorTarget<T> target = vectorTargetOf(property);
+      for (int i = 0; i < target.components.length; i++) {
+        Channel channel = startAnimation(
+          target,
+          target.components[i],
+          initialValues[i],
+          initialVelocities[i],
+          destinations[i]);
+        target.animations[i] = channel.animation;
+      }
+    }
+
+    private VectorTarget<T> vectorTargetOf(ReactiveProperty<T> property) {
+      for (int i = 0, count = vectorTargets.size(); i < count; i++) {
+        VectorTarget<T> target = vectorTargets.get(i);
+        if (target.property == property) {
+          return target;
+        }
+      }
+
+      VectorTarget<T> target = new VectorTarget<>(property, interaction.vectorizer);
+      vectorTargets.add(target);
+      return target;
     }
 
-    @SuppressLint("NewApi")
-    private void startAnimation(
-      View target,
-      Property<View, Float> property,
+    private <O> Channel startAnimation(
+      O target,
+      FloatPropertyCompat<O> property,
       float initialValue,
       float initialVelocity,
       float destination) {
-      ViewProperty viewProperty;
-
-      if (property == View.TRANSLATION_X) {
-        viewProperty = DynamicAnimation.TRANSLATION_X;
-      } else if (property == View.TRANSLATION_Y) {
-        viewProperty = DynamicAnimation.TRANSLATION_Y;
-      } else if (property == View.TRANSLATION_Z) {
-        viewProperty = DynamicAnimation.TRANSLATION_Z;
-      } else if (property == View.SCALE_X) {
-        viewProperty = DynamicAnimation.SCALE_X;
-      } else if (property == View.SCALE_Y) {
-        viewProperty = DynamicAnimation.SCALE_Y;
-      } else if (property == View.ROTATION) {
-        viewProperty = DynamicAnimation.ROTATION;
-      } else if (property == View.ROTATION_X) {
-        viewProperty = DynamicAnimation.ROTATION_X;
-      } else if (property == View.ROTATION_Y) {
-        viewProperty = DynamicAnimation.ROTATION_Y;
-      } else if (property == View.X) {
-        viewProperty = DynamicAnimation.X;
-      } else if (property == View.Y) {
-        viewProperty = DynamicAnimation.Y;
-      } else if (property == View.Z) {
-        viewProperty = DynamicAnimation.Z;
-      } else if (property == View.ALPHA) {
-        viewProperty = DynamicAnimation.ALPHA;
-      } else if (property == ViewProperties.SCROLL_X) {
-        viewProperty = DynamicAnimation.SCROLL_X;
-      } else if (property == ViewProperties.SCROLL_Y) {
-        viewProperty = DynamicAnimation.SCROLL_Y;
-      } else {
-        throw new IllegalArgumentException("Property not supported: " + property);
-      }
+      Channel channel = channelOf(target, property);
 
-      Key key = new Key(target, property);
-      SpringAnimation animation = animations.get(key);
+      if (channel == null) {
+        SpringForce force = new SpringForce(destination);
+        force.setStiffness(stiffness);
+        force.setDampingRatio(dampingRatio);
 
-      if (animation == null) {
-        animation = new SpringAnimation(target, viewProperty);
+        SpringAnimation animation = new SpringAnimation(target, property);
+        if (!(property instanceof ViewProperty)) {
+          animation.setMinimumVisibleChange(MIN_VISIBLE_CHANGE);
+        }
+        if (target instanceof VectorTarget) {
+          animation.addUpdateListener((VectorTarget<?>) target);
+        }
         animation.setStartValue(initialValue);
         animation.setStartVelocity(initialVelocity);
-      }
+        animation.setSpring(force);
 
-      float stiffness = stiffnessFromOrigamiValue(interaction.tension.read());
-      float dampingRatio = dampingRatioFromOrigamiValue(stiffness, interaction.friction.read());
-
-      SpringForce force = new SpringForce(destination);
-      force.setStiffness(stiffness);
-      force.setDampingRatio(dampingRatio);
-      animation.setSpring(force);
+        channel = new Channel(target, property, animation, force);
+        channels.add(channel);
+      }
 
-      animation.animateToFinalPosition(destination);
+      channel.animation.animateToFinalPosition(destination);
+      return channel;
+    }
 
-      animations.put(key, animation);
+    @Nullable
+    private Channel channelOf(Object target, FloatPropertyCompat<?> property) {
+      for (int i = 0, count = channels.size(); i < count; i++) {
+        Channel channel = channels.get(i);
+        if (channel.target == target && channel.property == property) {
+          return channel;
+        }
+      }
+      return null;
     }
 
     @Override
     public void stop() {
-      if (animations.isEmpty()) {
+      if (channels.isEmpty()) {
         return;
       }
 
-      for (int i = 0, count = animations.size(); i < count; i++) {
-        animations.valueAt(i).cancel();
+      for (int i = 0, count = channels.size(); i < count; i++) {
+        channels.get(i).animation.cancel();
       }
-      animations.clear();
+      channels.clear();
+      vectorTargets.clear();
     }
 
     public static float stiffnessFromOrigamiValue(float value) {
@@ -268,33 +467,121 @@ public final class DynamicSpringSource<T> extends SpringSource<T> {
       return (float) (friction / (2 * Math.sqrt(stiffness)));
     }
 
-    private static class Key {
-
-      private View target;
-      private Property<View, Float> property;
-
-      public Key(View target, Property<View, Float> property) {
+    /**
+     * The animation and force that drive a single float property.
+     */
+    private static class Channel {
+
+      private final Object target;
+      private final FloatPropertyCompat<?> property;
+      private final SpringAnimation animation;
+      private final SpringForce force;
+
+      private Channel(
+        Object target,
+        FloatPropertyCompat<?> property,
+        SpringAnimation animation,
+        SpringForce force) {
         this.target = target;
         this.property = property;
+        this.animation = animation;
+        this.force = force;
       }
+    }
+  }
 
-      @Override
-      public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+  /**
+   * Animates a {@link Property} of floats on any object.
+   */
+  private static final class PropertyAdapter<O> extends FloatPropertyCompat<O> {
 
-        Key key = (Key) o;
+    private final Property<O, Float> property;
 
-        if (!target.equals(key.target)) return false;
-        return property.equals(key.property);
+    private PropertyAdapter(Property<O, Float> property) {
+      super(property.getName());
+      this.property = property;
+    }
+
+    @Override
+    public float getValue(O object) {
+      return property.get(object);
+    }
+
+    @Override
+    public void setValue(O object, float value) {
+      property.set(object, value);
+    }
+  }
+
+  /**
+   * A reactive property whose vectorized value is animated one component at a time.
+   * <p>
+   * All animations step within the support library's frame callback. The composed value is
+   * written to the property once per frame, after every running component has taken its step.
+   */
+  private static final class VectorTarget<T> implements OnAnimationUpdateListener {
+
+    private final ReactiveProperty<T> property;
+    private final TypeVectorizer<T> vectorizer;
+    private final float[] vector;
+    private final ComponentProperty[] components;
+    private final SpringAnimation[] animations;
+    private final boolean[] stepped;
+
+    private VectorTarget(ReactiveProperty<T> property, TypeVectorizer<T> vectorizer) {
+      this.property = property;
+      this.vectorizer = vectorizer;
+
+      int length = vectorizer.getVectorLength();
+      vector = new float[length];
+      components = new ComponentProperty[length];
+      animations = new SpringAnimation[length];
+      stepped = new boolean[length];
+      for (int i = 0; i < length; i++) {
+        components[i] = new ComponentProperty(i);
+      }
+    }
+
+    @Override
+    public void onAnimationUpdate(DynamicAnimation animation, float value, float velocity) {
+      boolean complete = true;
+      for (int i = 0; i < animations.length; i++) {
+        if (animations[i] == animation) {
+          stepped[i] = true;
+        } else if (!stepped[i] && animations[i] != null && animations[i].isRunning()) {
+          complete = false;
+        }
       }
 
-      @Override
-      public int hashCode() {
-        int result = target.hashCode();
-        result = 31 * result + property.hashCode();
-        return result;
+      if (complete) {
+        for (int i = 0; i < stepped.length; i++) {
+          stepped[i] = false;
+        }
+        property.write(vectorizer.compose(vector));
       }
     }
   }
+
+  /**
+   * Animates a single component of a {@link VectorTarget}'s vector.
+   */
+  private static final class ComponentProperty extends FloatPropertyCompat<VectorTarget<?>> {
+
+    private final int index;
+
+    private ComponentProperty(int index) {
+      super("component" + index);
+      this.index = index;
+    }
+
+    @Override
+    public float getValue(VectorTarget<?> target) {
+      return target.vector[index];
+    }
+
+    @Override
+    public void setValue(VectorTarget<?> target, float value) {
+      target.vector[index] = value;
+    }
+  }
 }
@@ -21,6 +21,7 @@ import android.support.annotation.VisibleForTesting;
 
 import com.google.android.indefinite.observable.IndefiniteObservable.Connector;
 import com.google.android.indefinite.observable.IndefiniteObservable.Disconnector;
+import com.google.android.material.motion.MotionGraph;
 import com.google.android.material.motion.MotionObservable;
 import com.google.android.material.motion.MotionObserver;
 import com.google.android.material.motion.MotionState;
@@ -41,18 +42,30 @@ public final class GestureSource {
 
   /**
    * Creates a gesture source that will connect to the provided gesture interaction.
+   * <p>
+   * The returned stream is shared: it holds a single connection to the gesture recognizer that is
+   * opened by the first subscriber and closed when the last subscriber unsubscribes. Each gesture
+   * event is processed once and fanned out to all subscribers.
    */
   public static <GR extends GestureRecognizer> MotionObservable<GR> from(
     final GestureInteraction<GR, ?> interaction) {
+    final GestureConnection<GR> connection = new GestureConnection<>(interaction);
     return new MotionObservable<>(new Connector<MotionObserver<GR>>() {
       @NonNull
       @Override
-      public Disconnector connect(MotionObserver<GR> observer) {
-        final GestureConnection connection = new GestureConnection<>(interaction, observer);
+      public Disconnector connect(final MotionObserver<GR> observer) {
+        final MotionGraph.Edge graphEdge =
+          MotionGraph.enabled ? MotionGraph.connect(connection.graphNode()) : null;
+
+        connection.addObserver(observer);
         return new Disconnector() {
           @Override
           public void disconnect() {
-            connection.disconnect();
+            connection.removeObserver(observer);
+
+            if (graphEdge != null) {
+              MotionGraph.disconnect(graphEdge);
+            }
           }
         };
       }
@@ -61,23 +74,69 @@ public final class GestureSource {
 
   private static class GestureConnection<GR extends GestureRecognizer> {
 
+    private static final MotionObserver<?>[] NO_OBSERVERS = new MotionObserver<?>[0];
+
     private final GestureInteraction<GR, ?> interaction;
-    private final MotionObserver<GR> observer;
+    /**
+     * The subscribed observers. The array is replaced rather than modified, so that dispatch can
+     * iterate a snapshot without allocating.
+     */
+    private MotionObserver<?>[] observers = NO_OBSERVERS;
     @Nullable
     @MotionState
     private Integer lastPropagatedState = null;
+    @Nullable
+    private MotionGraph.Node graphNode;
 
-    private GestureConnection(GestureInteraction<GR, ?> interaction, MotionObserver<GR> observer) {
+    private GestureConnection(GestureInteraction<GR, ?> interaction) {
       this.interaction = interaction;
-      this.observer = observer;
+    }
 
-      interaction.gestureRecognizer.addStateChangeListener(gestureStateChangeListener);
+    private MotionGraph.Node graphNode() {
+      if (graphNode == null) {
+        graphNode = MotionGraph.newNode(
+          MotionGraph.Kind.SOURCE, "GestureSource " + interaction.getClass().getSimpleName());
+      }
+      return graphNode;
+    }
 
-      propagate();
+    private void addObserver(MotionObserver<GR> observer) {
+      MotionObserver<?>[] grown = new MotionObserver<?>[observers.length + 1];
+      System.arraycopy(observers, 0, grown, 0, observers.length);
+      grown[observers.length] = observer;
+      observers = grown;
+
+      if (grown.length == 1) {
+        interaction.gestureRecognizer.addStateChangeListener(gestureStateChangeListener);
+        propagate();
+      } else {
+        observer.next(interaction.gestureRecognizer);
+      }
     }
 
-    private void disconnect() {
-      interaction.gestureRecognizer.removeStateChangeListener(gestureStateChangeListener);
+    private void removeObserver(MotionObserver<GR> observer) {
+      int index = -1;
+      for (int i = 0; i < observers.length; i++) {
+        if (observers[i] == observer) {
+          index = i;
+          break;
+        }
+      }
+      if (index < 0) {
+        return;
+      }
+
+      if (observers.length == 1) {
+        observers = NO_OBSERVERS;
+        interaction.gestureRecognizer.removeStateChangeListener(gestureStateChangeListener);
+        lastPropagatedState = null;
+        return;
+      }
+
+      MotionObserver<?>[] shrunk = new MotionObserver<?>[observers.length - 1];
+      System.arraycopy(observers, 0, shrunk, 0, index);
+      System.arraycopy(observers, index + 1, shrunk, index, observers.length - index - 1);
+      observers = shrunk;
     }
 
     private void propagate() {
@@ -93,7 +152,14 @@ public final class GestureSource {
         lastPropagatedState = MotionState.ACTIVE;
       }
 
-      observer.next(interaction.gestureRecognizer);
+      if (graphNode != null) {
+        graphNode.record();
+      }
+      MotionObserver<?>[] observers = this.observers;
+      for (int i = 0; i < observers.length; i++) {
+        //noinspection unchecked
+        ((MotionObserver<GR>) observers[i]).next(interaction.gestureRecognizer);
+      }
 
       if (!isActive && !wasAtRest) {
         interaction.state.write(MotionState.AT_REST);
@@ -22,6 +22,9 @@ import com.google.android.indefinite.observable.Observer;
 import com.google.android.material.motion.MotionObserver;
 import com.google.android.material.motion.MotionObserver.SimpleMotionObserver;
 import com.google.android.material.motion.MotionState;
+import com.google.android.material.motion.MotionTrace;
+import com.google.android.material.motion.Propagation;
+import com.google.android.material.motion.Propagation.Reaction;
 import com.google.android.material.motion.interactions.MaterialSpring;
 import com.google.android.material.motion.physics.Integrator;
 import com.google.android.material.motion.physics.Integrator.Listener;
@@ -42,6 +45,8 @@ public final class PhysicsSpringSource<T> extends SpringSource<T> {
     }
   };
 
+  private static final String UPDATE_SECTION = "PhysicsSpringSource.onUpdate";
+
   private final MaterialSpring<?, T> interaction;
 
   private final Integrator integrator;
@@ -52,6 +57,8 @@ public final class PhysicsSpringSource<T> extends SpringSource<T> {
   private Subscription frictionSubscription;
   private Subscription tensionSubscription;
 
+  private boolean enabled;
+
   public PhysicsSpringSource(MaterialSpring<?, T> interaction) {
     super(interaction);
     this.interaction = interaction;
@@ -70,8 +77,13 @@ public final class PhysicsSpringSource<T> extends SpringSource<T> {
 
       @Override
       public void onUpdate(Vector x, Vector v) {
-        for (int i = 0, count = integratorListeners.size(); i < count; i++) {
-          integratorListeners.valueAt(i).onUpdate(x, v);
+        MotionTrace.beginSection(UPDATE_SECTION);
+        try {
+          for (int i = 0, count = integratorListeners.size(); i < count; i++) {
+            integratorListeners.valueAt(i).onUpdate(x, v);
+          }
+        } finally {
+          MotionTrace.endSection(UPDATE_SECTION);
         }
       }
 
@@ -96,22 +108,36 @@ public final class PhysicsSpringSource<T> extends SpringSource<T> {
         observer.next(value);
       }
     });
+    Propagation.attach(startReaction);
   }
 
   @Override
   protected void onEnable() {
+    enabled = true;
+
+    rankAfterParameters(startReaction, interaction);
+    Propagation.begin();
+    try {
+      subscribe();
+      Propagation.schedule(startReaction);
+    } finally {
+      Propagation.end();
+    }
+  }
+
+  private void subscribe() {
     tensionSubscription = interaction.tension.subscribe(new SimpleMotionObserver<Float>() {
       @Override
       public void next(Float value) {
         springForce.k = Spring.tensionFromOrigamiValue(value);
-        integrator.start();
+        Propagation.schedule(startReaction);
       }
     });
     frictionSubscription = interaction.friction.subscribe(new SimpleMotionObserver<Float>() {
       @Override
       public void next(Float value) {
         springForce.b = Spring.frictionFromOrigamiValue(value);
-        integrator.start();
+        Propagation.schedule(startReaction);
       }
     });
 
@@ -134,15 +160,14 @@ public final class PhysicsSpringSource<T> extends SpringSource<T> {
         interaction.vectorizer.vectorize(value, endValues);
 
         springForce.setAnchorPoint(new Vector(endValues));
-        integrator.start();
+        Propagation.schedule(startReaction);
       }
     });
-
-    integrator.start();
   }
 
   @Override
   protected void onDisable() {
+    enabled = false;
     integrator.stop();
 
     if (tensionSubscription != null) {
@@ -155,5 +180,21 @@ public final class PhysicsSpringSource<T> extends SpringSource<T> {
   @Override
   protected void onDisconnect(MotionObserver<T> observer) {
     integratorListeners.remove(observer);
+    if (integratorListeners.isEmpty()) {
+      Propagation.detach(startReaction);
+    }
   }
+
+  /**
+   * Starts the integrator once per transaction, after the destination and coefficients have all
+   * been updated.
+   */
+  private final Reaction startReaction = new Reaction() {
+    @Override
+    protected void react() {
+      if (enabled) {
+        integrator.start();
+      }
+    }
+  };
 }
@@ -15,6 +15,7 @@
  */
 package com.google.android.material.motion.sources;
 
+import com.google.android.material.motion.Propagation.Reaction;
 import com.google.android.material.motion.Source;
 import com.google.android.material.motion.interactions.MaterialSpring;
 
@@ -27,6 +28,18 @@ public abstract class SpringSource<T> extends Source<T> {
     super(spring);
   }
 
+  /**
+   * Ranks the reaction that starts the spring after every parameter of the spring that it reads.
+   */
+  protected static void rankAfterParameters(Reaction reaction, MaterialSpring<?, ?> spring) {
+    reaction.rankAfter(spring.enabled);
+    reaction.rankAfter(spring.destination);
+    reaction.rankAfter(spring.initialValue);
+    reaction.rankAfter(spring.initialVelocity);
+    reaction.rankAfter(spring.tension);
+    reaction.rankAfter(spring.friction);
+  }
+
   public static abstract class System {
     public abstract <T> SpringSource<T> create(MaterialSpring<?, T> spring);
   }
@@ -26,6 +26,7 @@ import android.view.View;
 import com.google.android.indefinite.observable.Observer;
 import com.google.android.material.motion.MotionObserver;
 import com.google.android.material.motion.MotionState;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.Source;
 import com.google.android.material.motion.gestures.OnTouchListeners;
 import com.google.android.material.motion.interactions.SetPositionOnTap;
@@ -38,6 +39,7 @@ public class TapSource extends Source<PointF> {
   private final GestureDetectorCompat detector;
   private final SimpleArrayMap<Observer<PointF>, OnGestureListener> gestureListeners =
     new SimpleArrayMap<>();
+  private final PointF point = new PointF();
 
   public TapSource(SetPositionOnTap interaction) {
     super(interaction);
@@ -66,7 +68,7 @@ public class TapSource extends Source<PointF> {
       public boolean onSingleTapUp(MotionEvent e) {
         interaction.state.write(MotionState.ACTIVE);
 
-        observer.next(new PointF(e.getX(), e.getY()));
+        observer.next(ReusedPointF.obtain(point, e.getX(), e.getY()));
 
         interaction.state.write(MotionState.AT_REST);
         return true;
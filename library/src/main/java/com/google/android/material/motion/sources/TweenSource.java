@@ -31,6 +31,7 @@ import com.google.android.indefinite.observable.Observer;
 import com.google.android.material.motion.MotionObserver;
 import com.google.android.material.motion.MotionObserver.SimpleMotionObserver;
 import com.google.android.material.motion.MotionState;
+import com.google.android.material.motion.MotionTrace;
 import com.google.android.material.motion.Source;
 import com.google.android.material.motion.interactions.Tween;
 
@@ -39,6 +40,7 @@ public class TweenSource<O, T> extends Source<T> {
   private static final TimeInterpolator defaultInterpolator =
     new AccelerateDecelerateInterpolator();
   private static final Object[] lengthTwoArray = new Object[2];
+  private static final String UPDATE_SECTION = "TweenSource.onAnimationUpdate";
 
   private final Tween<O, T> interaction;
   private final ValueAnimator animator;
@@ -74,8 +76,13 @@ public class TweenSource<O, T> extends Source<T> {
     animator.addUpdateListener(new AnimatorUpdateListener() {
       @Override
       public void onAnimationUpdate(ValueAnimator animation) {
-        for (int i = 0, count = updateListeners.size(); i < count; i++) {
-          updateListeners.valueAt(i).onAnimationUpdate(animation);
+        MotionTrace.beginSection(UPDATE_SECTION);
+        try {
+          for (int i = 0, count = updateListeners.size(); i < count; i++) {
+            updateListeners.valueAt(i).onAnimationUpdate(animation);
+          }
+        } finally {
+          MotionTrace.endSection(UPDATE_SECTION);
         }
       }
     });
@@ -107,73 +114,15 @@ public class TweenSource<O, T> extends Source<T> {
   protected void onEnable() {
     initialized = false;
 
-    evaluatorSubscription = interaction.evaluator.subscribe(
-      new SimpleMotionObserver<TypeEvaluator<T>>() {
-        @Override
-        public void next(TypeEvaluator<T> value) {
-          lastEvaluator = value;
-          startAnimator();
-        }
-    });
-    valuesSubscription = interaction.values.subscribe(new SimpleMotionObserver<T[]>() {
-      @Override
-      public void next(T[] value) {
-        lastValues = value;
-        startAnimator();
-      }
-    });
-    offsetsSubscription = interaction.offsets.subscribe(new SimpleMotionObserver<float[]>() {
-      @Override
-      public void next(float[] value) {
-        lastOffsets = value;
-        startAnimator();
-      }
-    });
-    timingFunctionsSubscription = interaction.timingFunctions.subscribe(
-      new SimpleMotionObserver<TimeInterpolator[]>() {
-
-        @Override
-        public void next(TimeInterpolator[] value) {
-          lastTimingFunctions = value;
-          startAnimator();
-        }
-      });
-    durationSubscription = interaction.duration.subscribe(new SimpleMotionObserver<Long>() {
-      @Override
-      public void next(Long value) {
-        lastDuration = value;
-        startAnimator();
-      }
-    });
-    delaySubscription = interaction.delay.subscribe(new SimpleMotionObserver<Long>() {
-      @Override
-      public void next(Long value) {
-        lastDelay = value;
-        startAnimator();
-      }
-    });
-    repeatCountSubscription = interaction.repeatCount.subscribe(new SimpleMotionObserver<Integer>() {
-      @Override
-      public void next(Integer value) {
-        lastRepeatCount = value;
-        startAnimator();
-      }
-    });
-    repeatModeSubscription = interaction.repeatMode.subscribe(new SimpleMotionObserver<Integer>() {
-      @Override
-      public void next(Integer value) {
-        lastRepeatMode = value;
-        startAnimator();
-      }
-    });
-    timingFunctionSubscription =
-      interaction.timingFunction.subscribe(new SimpleMotionObserver<TimeInterpolator>() {
-        @Override
-        public void next(TimeInterpolator value) {
-          lastTimingFunction = value;
-          startAnimator();
-        }
-      });
+    evaluatorSubscription = interaction.evaluator.subscribe(evaluatorObserver);
+    valuesSubscription = interaction.values.subscribe(valuesObserver);
+    offsetsSubscription = interaction.offsets.subscribe(offsetsObserver);
+    timingFunctionsSubscription = interaction.timingFunctions.subscribe(timingFunctionsObserver);
+    durationSubscription = interaction.duration.subscribe(durationObserver);
+    delaySubscription = interaction.delay.subscribe(delayObserver);
+    repeatCountSubscription = interaction.repeatCount.subscribe(repeatCountObserver);
+    repeatModeSubscription = interaction.repeatMode.subscribe(repeatModeObserver);
+    timingFunctionSubscription = interaction.timingFunction.subscribe(timingFunctionObserver);
 
     initialized = true;
     startAnimator();
@@ -272,6 +221,8 @@ public class TweenSource<O, T> extends Source<T> {
       timingFunctionsSubscription.unsubscribe();
       durationSubscription.unsubscribe();
       delaySubscription.unsubscribe();
+      repeatCountSubscription.unsubscribe();
+      repeatModeSubscription.unsubscribe();
       timingFunctionSubscription.unsubscribe();
     }
   }
@@ -280,4 +231,79 @@ public class TweenSource<O, T> extends Source<T> {
   protected void onDisconnect(MotionObserver<T> observer) {
     updateListeners.remove(observer);
   }
+
+  private final MotionObserver<TypeEvaluator<T>> evaluatorObserver =
+    new SimpleMotionObserver<TypeEvaluator<T>>() {
+      @Override
+      public void next(TypeEvaluator<T> value) {
+        lastEvaluator = value;
+        startAnimator();
+      }
+    };
+
+  private final MotionObserver<T[]> valuesObserver = new SimpleMotionObserver<T[]>() {
+    @Override
+    public void next(T[] value) {
+      lastValues = value;
+      startAnimator();
+    }
+  };
+
+  private final MotionObserver<float[]> offsetsObserver = new SimpleMotionObserver<float[]>() {
+    @Override
+    public void next(float[] value) {
+      lastOffsets = value;
+      startAnimator();
+    }
+  };
+
+  private final MotionObserver<TimeInterpolator[]> timingFunctionsObserver =
+    new SimpleMotionObserver<TimeInterpolator[]>() {
+      @Override
+      public void next(TimeInterpolator[] value) {
+        lastTimingFunctions = value;
+        startAnimator();
+      }
+    };
+
+  private final MotionObserver<Long> durationObserver = new SimpleMotionObserver<Long>() {
+    @Override
+    public void next(Long value) {
+      lastDuration = value;
+      startAnimator();
+    }
+  };
+
+  private final MotionObserver<Long> delayObserver = new SimpleMotionObserver<Long>() {
+    @Override
+    public void next(Long value) {
+      lastDelay = value;
+      startAnimator();
+    }
+  };
+
+  private final MotionObserver<Integer> repeatCountObserver = new SimpleMotionObserver<Integer>() {
+    @Override
+    public void next(Integer value) {
+      lastRepeatCount = value;
+      startAnimator();
+    }
+  };
+
+  private final MotionObserver<Integer> repeatModeObserver = new SimpleMotionObserver<Integer>() {
+    @Override
+    public void next(Integer value) {
+      lastRepeatMode = value;
+      startAnimator();
+    }
+  };
+
+  private final MotionObserver<TimeInterpolator> timingFunctionObserver =
+    new SimpleMotionObserver<TimeInterpolator>() {
+      @Override
+      public void next(TimeInterpolator value) {
+        lastTimingFunction = value;
+        startAnimator();
+      }
+    };
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import android.graphics.PointF;
+import android.view.View;
+
+import com.google.android.material.motion.interactions.MaterialSpring;
+import com.google.android.material.motion.sources.DynamicSpringSource;
+import com.google.android.material.motion.springs.FloatVectorizer;
+import com.google.android.material.motion.testing.TrackingMotionObserver;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowChoreographer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.android.material.motion.operators.OffsetBy.floatOffsetBy;
+import static com.google.android.material.motion.operators.ScaledBy.floatScaledBy;
+import static com.google.android.material.motion.operators.UpperBound.floatUpperBound;
+import static com.google.android.material.motion.operators.X.floatX;
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class FloatMotionObservableTests {
+
+  @Test
+  public void composesWithoutBoxing() {
+    final List<Float> values = new ArrayList<>();
+    ReactiveProperty<Float> property = ReactiveProperty.of(1f);
+
+    FloatMotionObservable.from(property)
+      .compose(floatOffsetBy(1f))
+      .compose(floatScaledBy(10f))
+      .compose(floatUpperBound(50f))
+      .subscribe(new FloatMotionObserver() {
+        @Override
+        public void next(float value) {
+          values.add(value);
+        }
+      });
+
+    property.write(2f);
+    property.write(9f);
+
+    assertThat(values).isEqualTo(Arrays.asList(20f, 30f, 50f));
+  }
+
+  @Test
+  public void bridgesFromObjectStream() {
+    TrackingMotionObserver<Float> tracker = new TrackingMotionObserver<>();
+    ReactiveProperty<PointF> property = ReactiveProperty.of(new PointF(3f, 4f));
+
+    property.getStream()
+      .compose(floatX())
+      .compose(floatOffsetBy(2f))
+      .boxed()
+      .subscribe(tracker);
+
+    property.write(new PointF(7f, 8f));
+
+    assertThat(tracker.values).isEqualTo(Arrays.asList(5f, 9f));
+  }
+
+  @Test
+  public void runtimeWritesFloatStream() {
+    ReactiveProperty<Float> source = ReactiveProperty.of(0f);
+    ReactiveProperty<Float> target = ReactiveProperty.of(0f);
+
+    new MotionRuntime().write(FloatMotionObservable.from(source).compose(floatOffsetBy(5f)), target);
+    source.write(10f);
+
+    assertThat(target.read()).isWithin(0f).of(15f);
+  }
+
+  @Test
+  public void floatStreamBuildsDynamicSpring() {
+    ShadowChoreographer.setPostFrameCallbackDelay(16);
+    try {
+      MaterialSpring<View, Float> spring = new MaterialSpring<>(
+        View.TRANSLATION_X,
+        new FloatVectorizer(),
+        100f,
+        0f,
+        0f,
+        1f,
+        MaterialSpring.DEFAULT_TENSION,
+        MaterialSpring.DEFAULT_FRICTION,
+        DynamicSpringSource.SYSTEM);
+      ReactiveProperty<Float> target = ReactiveProperty.of(0f);
+
+      new MotionRuntime().write(
+        FloatMotionObservable.from(DynamicSpringSource.SYSTEM.create(spring).getStream())
+          .compose(floatUpperBound(50f)),
+        target);
+      Robolectric.getForegroundThreadScheduler().advanceBy(2, TimeUnit.SECONDS);
+
+      assertThat(target.read()).isWithin(1f).of(50f);
+    } finally {
+      ShadowChoreographer.setPostFrameCallbackDelay(0);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import com.google.android.indefinite.observable.IndefiniteObservable.Subscription;
+import com.google.android.material.motion.MotionGraph.EdgeSnapshot;
+import com.google.android.material.motion.MotionGraph.GraphSnapshot;
+import com.google.android.material.motion.MotionGraph.NodeSnapshot;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.google.android.material.motion.operators.Dedupe.dedupe;
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class MotionGraphTests {
+
+  @After
+  public void tearDown() {
+    MotionGraph.setEnabled(false);
+  }
+
+  @Test
+  public void recordsNothingWhenDisabled() {
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+    Subscription subscription = property.getStream().compose(dedupe()).subscribe();
+
+    assertThat(MotionGraph.snapshot().nodes).isEmpty();
+
+    subscription.unsubscribe();
+  }
+
+  @Test
+  public void recordsPropertiesOperatorsAndEdges() {
+    MotionGraph.setEnabled(true);
+
+    ReactiveProperty<Float> source = ReactiveProperty.of(0f);
+    ReactiveProperty<Float> target = ReactiveProperty.of(0f);
+    MotionRuntime runtime = new MotionRuntime();
+    runtime.write(source.getStream().compose(dedupe()), target);
+    source.write(1f);
+
+    GraphSnapshot graph = MotionGraph.snapshot();
+    assertThat(graph.nodes).hasSize(3);
+    assertThat(graph.edges).hasSize(2);
+
+    NodeSnapshot operator = nodeOfKind(graph, MotionGraph.Kind.OPERATOR);
+    assertThat(operator.subscribers).isEqualTo(1);
+    assertThat(operator.events).isEqualTo(2);
+
+    EdgeSnapshot in = edgeTo(graph, operator.id);
+    EdgeSnapshot out = edgeFrom(graph, operator.id);
+    NodeSnapshot upstream = graph.node(in.from);
+    NodeSnapshot downstream = graph.node(out.to);
+    assertThat(upstream.kind).isEqualTo(MotionGraph.Kind.PROPERTY);
+    assertThat(upstream.subscribers).isEqualTo(1);
+    assertThat(upstream.events).isEqualTo(1);
+    assertThat(downstream.kind).isEqualTo(MotionGraph.Kind.PROPERTY);
+    assertThat(downstream.subscribers).isEqualTo(0);
+    assertThat(downstream.events).isEqualTo(2);
+
+    runtime.dispose();
+
+    assertThat(MotionGraph.snapshot().nodes).isEmpty();
+  }
+
+  @Test
+  public void countsConnectionsOfSharedEdges() {
+    MotionGraph.setEnabled(true);
+
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+    Subscription first = property.getStream().subscribe();
+    Subscription second = property.getStream().subscribe();
+
+    GraphSnapshot graph = MotionGraph.snapshot();
+    assertThat(graph.nodes).hasSize(1);
+    assertThat(graph.nodes.get(0).subscribers).isEqualTo(2);
+    assertThat(graph.edges).hasSize(1);
+    assertThat(graph.edges.get(0).to).isEqualTo(MotionGraph.EXTERNAL);
+    assertThat(graph.edges.get(0).connections).isEqualTo(2);
+
+    String dot = graph.toDot();
+    assertThat(dot).startsWith("digraph motion {");
+    assertThat(dot).contains("n" + MotionGraph.EXTERNAL + " [label=\"external\"");
+    assertThat(dot).contains(
+      "n" + graph.nodes.get(0).id + " -> n" + MotionGraph.EXTERNAL + " [label=\"2\"];");
+
+    first.unsubscribe();
+    second.unsubscribe();
+
+    assertThat(MotionGraph.snapshot().nodes).isEmpty();
+    assertThat(MotionGraph.snapshot().edges).isEmpty();
+  }
+
+  private static NodeSnapshot nodeOfKind(GraphSnapshot graph, @MotionGraph.Kind int kind) {
+    for (NodeSnapshot node : graph.nodes) {
+      if (node.kind == kind) {
+        return node;
+      }
+    }
+    throw new AssertionError("No node of kind " + kind);
+  }
+
+  private static EdgeSnapshot edgeTo(GraphSnapshot graph, int id) {
+    for (EdgeSnapshot edge : graph.edges) {
+      if (edge.to == id) {
+        return edge;
+      }
+    }
+    throw new AssertionError("No edge to " + id);
+  }
+
+  private static EdgeSnapshot edgeFrom(GraphSnapshot graph, int id) {
+    for (EdgeSnapshot edge : graph.edges) {
+      if (edge.from == id) {
+        return edge;
+      }
+    }
+    throw new AssertionError("No edge from " + id);
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import android.graphics.PointF;
+import android.support.annotation.NonNull;
+
+import com.google.android.indefinite.observable.IndefiniteObservable;
+import com.google.android.material.motion.testing.SimulatedMotionSource;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+
+import static com.google.android.material.motion.operators.LogOp.record;
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class MotionLogTests {
+
+  @After
+  public void tearDown() {
+    MotionLog.stop();
+    MotionLog.clear();
+  }
+
+  @Test
+  public void recordsNothingWhenStopped() {
+    int stream = MotionLog.register("stream");
+    MotionLog.record(stream, 1f);
+
+    assertThat(MotionLog.dump()).isEmpty();
+  }
+
+  @Test
+  public void registeringTheSameNameReusesTheId() {
+    int first = MotionLog.register("repeated");
+    int second = MotionLog.register("repeated");
+
+    assertThat(second).isEqualTo(first);
+    assertThat(MotionLog.register("other")).isNotEqualTo(first);
+  }
+
+  @Test
+  public void formatsPayloadsWhenDumped() {
+    int stream = MotionLog.register("stream");
+    MotionLog.start(8);
+    MotionLog.record(stream);
+    MotionLog.record(stream, 0.5f);
+    MotionLog.record(stream, 2.0);
+    MotionLog.record(stream, true);
+    MotionLog.record(stream, 1f, 2f);
+    MotionLog.record(stream, (Object) new PointF(3f, 4f));
+
+    String[] lines = MotionLog.dump().split("\n");
+    assertThat(lines).hasLength(6);
+    assertThat(lines[0]).endsWith("ms stream");
+    assertThat(lines[1]).endsWith("ms stream 0.5");
+    assertThat(lines[2]).endsWith("ms stream 2.0");
+    assertThat(lines[3]).endsWith("ms stream true");
+    assertThat(lines[4]).endsWith("ms stream (1.0, 2.0)");
+    assertThat(lines[5]).endsWith("ms stream (3.0, 4.0)");
+  }
+
+  @Test
+  public void overwritesOldestEvents() {
+    int stream = MotionLog.register("stream");
+    MotionLog.start(2);
+    MotionLog.record(stream, 1f);
+    MotionLog.record(stream, 2f);
+    MotionLog.record(stream, 3f);
+
+    String[] lines = MotionLog.dump().split("\n");
+    assertThat(lines).hasLength(2);
+    assertThat(lines[0]).endsWith(" 2.0");
+    assertThat(lines[1]).endsWith(" 3.0");
+  }
+
+  @Test
+  public void operatorSamplesValues() {
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    source.getObservable().compose(record("sampled", 2)).subscribe();
+
+    MotionLog.start(8);
+    for (int i = 1; i <= 5; i++) {
+      source.next((float) i);
+    }
+
+    String[] lines = MotionLog.dump().split("\n");
+    assertThat(lines).hasLength(3);
+    assertThat(lines[0]).endsWith("ms sampled 1.0");
+    assertThat(lines[1]).endsWith("ms sampled 3.0");
+    assertThat(lines[2]).endsWith("ms sampled 5.0");
+  }
+
+  @Test
+  public void recordForwardsBuild() {
+    final Float[][] built = new Float[1][];
+    MotionObservable<Float> source = new MotionObservable<>(
+      new IndefiniteObservable.Connector<MotionObserver<Float>>() {
+        @NonNull
+        @Override
+        public IndefiniteObservable.Disconnector connect(MotionObserver<Float> observer) {
+          observer.build(null, 1f, 2f, 3f);
+          return IndefiniteObservable.Disconnector.NO_OP;
+        }
+      });
+
+    MotionLog.start(8);
+    source.compose(record("stream")).subscribe(new MotionObserver<Float>() {
+      @Override
+      public void next(Float value) {
+      }
+
+      @Override
+      public void build(MotionBuilder<Float> builder, Float[] values) {
+        built[0] = values;
+      }
+    });
+
+    assertThat(Arrays.asList(built[0])).isEqualTo(Arrays.asList(1f, 2f, 3f));
+  }
+}
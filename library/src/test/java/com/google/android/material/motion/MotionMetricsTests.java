@@ -0,0 +1,243 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import android.os.SystemClock;
+
+import com.google.android.indefinite.observable.IndefiniteObservable.Subscription;
+import com.google.android.material.motion.MotionMetrics.NodeSnapshot;
+import com.google.android.material.motion.operators.DelayBy;
+import com.google.android.material.motion.testing.SimulatedMotionSource;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.android.material.motion.operators.Dedupe.dedupe;
+import static com.google.android.material.motion.operators.UpperBound.floatUpperBound;
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class MotionMetricsTests {
+
+  @After
+  public void tearDown() {
+    MotionMetrics.setEnabled(false);
+    MotionMetrics.reset();
+  }
+
+  @Test
+  public void recordsNothingWhenDisabled() {
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    source.getObservable().compose(dedupe()).subscribe();
+    source.next(1f);
+
+    assertThat(MotionMetrics.snapshot()).isEmpty();
+  }
+
+  @Test
+  public void recordsOperatorEventsAndSubscriptions() {
+    MotionMetrics.setEnabled(true);
+
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    Subscription subscription = source.getObservable().compose(dedupe()).subscribe();
+    source.next(1f);
+    source.next(2f);
+    source.next(2f);
+    subscription.unsubscribe();
+
+    List<NodeSnapshot> snapshots = MotionMetrics.snapshot();
+    assertThat(snapshots).hasSize(1);
+
+    NodeSnapshot snapshot = snapshots.get(0);
+    assertThat(snapshot.kind).isEqualTo(MotionMetrics.Kind.OPERATOR);
+    assertThat(snapshot.events).isEqualTo(3);
+    assertThat(snapshot.subscribes).isEqualTo(1);
+    assertThat(snapshot.unsubscribes).isEqualTo(1);
+
+    long histogramTotal = 0;
+    for (long count : snapshot.histogram) {
+      histogramTotal += count;
+    }
+    assertThat(histogramTotal).isEqualTo(3);
+  }
+
+  @Test
+  public void recordsRuntimeWrites() {
+    MotionMetrics.setEnabled(true);
+
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+    new MotionRuntime().write(source.getObservable(), property);
+    source.next(1f);
+
+    List<NodeSnapshot> snapshots = MotionMetrics.snapshot();
+    assertThat(snapshots).hasSize(1);
+    assertThat(snapshots.get(0).kind).isEqualTo(MotionMetrics.Kind.WRITE);
+    assertThat(snapshots.get(0).events).isEqualTo(1);
+  }
+
+  @Test
+  public void reportsOneWriteNodePerProperty() {
+    MotionMetrics.setEnabled(true);
+
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+    MotionRuntime runtime = new MotionRuntime();
+    runtime.write(source.getObservable(), property);
+    runtime.write(source.getObservable(), property);
+    source.next(1f);
+    runtime.dispose();
+
+    List<NodeSnapshot> snapshots = MotionMetrics.snapshot();
+    assertThat(snapshots).hasSize(1);
+    assertThat(snapshots.get(0).events).isEqualTo(2);
+    assertThat(snapshots.get(0).subscribes).isEqualTo(2);
+    assertThat(snapshots.get(0).unsubscribes).isEqualTo(2);
+  }
+
+  @Test
+  public void registersWriteNodeAgainAfterReset() {
+    MotionMetrics.setEnabled(true);
+
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+    MotionRuntime runtime = new MotionRuntime();
+    runtime.write(source.getObservable(), property);
+    MotionMetrics.reset();
+    runtime.write(source.getObservable(), property);
+    source.next(1f);
+
+    List<NodeSnapshot> snapshots = MotionMetrics.snapshot();
+    assertThat(snapshots).hasSize(1);
+    assertThat(snapshots.get(0).events).isEqualTo(1);
+    assertThat(snapshots.get(0).subscribes).isEqualTo(1);
+  }
+
+  @Test
+  public void recordsFloatOperatorStages() {
+    MotionMetrics.setEnabled(true);
+
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+    Subscription subscription =
+      FloatMotionObservable.from(property).compose(floatUpperBound(1f)).subscribe();
+    property.write(2f);
+    subscription.unsubscribe();
+
+    List<NodeSnapshot> snapshots = MotionMetrics.snapshot();
+    assertThat(snapshots).hasSize(1);
+    assertThat(snapshots.get(0).kind).isEqualTo(MotionMetrics.Kind.OPERATOR);
+    assertThat(snapshots.get(0).events).isEqualTo(2);
+    assertThat(snapshots.get(0).subscribes).isEqualTo(1);
+    assertThat(snapshots.get(0).unsubscribes).isEqualTo(1);
+  }
+
+  @Test
+  public void recordsInputLatencyPerInteraction() {
+    MotionMetrics.setEnabled(true);
+
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+    new MotionRuntime().addInteraction(new WriteInteraction(source), property);
+
+    long input = MotionMetrics.beginInput(SystemClock.uptimeMillis() - 5);
+    source.next(1f);
+    MotionMetrics.endInput(input);
+
+    List<NodeSnapshot> latencies = latencySnapshots();
+    assertThat(latencies).hasSize(1);
+    assertThat(latencies.get(0).name)
+      .isEqualTo(
+        "latency MotionMetricsTests$WriteInteraction > ReactiveProperty$ValueReactiveProperty");
+    assertThat(latencies.get(0).events).isEqualTo(1);
+    assertThat(latencies.get(0).totalNanos).isAtLeast(TimeUnit.MILLISECONDS.toNanos(5));
+  }
+
+  @Test
+  public void recordsNoLatencyOutsideOfInput() {
+    MotionMetrics.setEnabled(true);
+
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    new MotionRuntime().write(source.getObservable(), ReactiveProperty.of(0f));
+    source.next(1f);
+
+    assertThat(latencySnapshots()).isEmpty();
+    assertThat(MotionMetrics.inputNanos()).isEqualTo(MotionMetrics.NO_INPUT);
+  }
+
+  @Test
+  public void delayedValuesKeepTheirInput() {
+    MotionMetrics.setEnabled(true);
+
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    new MotionRuntime().write(
+      source.getObservable().compose(DelayBy.<Float>delayBy(10)), ReactiveProperty.of(0f));
+
+    long input = MotionMetrics.beginInput(SystemClock.uptimeMillis());
+    source.next(1f);
+    MotionMetrics.endInput(input);
+    assertThat(latencySnapshots()).isEmpty();
+
+    Robolectric.getForegroundThreadScheduler().advanceBy(10, TimeUnit.MILLISECONDS);
+
+    List<NodeSnapshot> latencies = latencySnapshots();
+    assertThat(latencies).hasSize(1);
+    assertThat(latencies.get(0).events).isEqualTo(1);
+  }
+
+  @Test
+  public void bucketsAreLogarithmic() {
+    assertThat(MotionMetrics.bucketOf(0)).isEqualTo(0);
+    assertThat(MotionMetrics.bucketOf(1)).isEqualTo(1);
+    assertThat(MotionMetrics.bucketOf(1000)).isEqualTo(10);
+    assertThat(MotionMetrics.bucketOf(Long.MAX_VALUE)).isEqualTo(MotionMetrics.BUCKETS - 1);
+  }
+
+  private static List<NodeSnapshot> latencySnapshots() {
+    List<NodeSnapshot> latencies = new ArrayList<>();
+    for (NodeSnapshot snapshot : MotionMetrics.snapshot()) {
+      if (snapshot.kind == MotionMetrics.Kind.LATENCY) {
+        latencies.add(snapshot);
+      }
+    }
+    return latencies;
+  }
+
+  private static class WriteInteraction extends Interaction<ReactiveProperty<Float>, Float> {
+
+    private final SimulatedMotionSource<Float> source;
+
+    WriteInteraction(SimulatedMotionSource<Float> source) {
+      this.source = source;
+    }
+
+    @Override
+    protected void apply(
+      MotionRuntime runtime,
+      ReactiveProperty<Float> target,
+      ConstraintApplicator<Float> constraints) {
+      runtime.write(constraints.apply(source.getObservable()), target);
+    }
+  }
+}
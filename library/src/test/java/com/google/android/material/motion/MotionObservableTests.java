@@ -31,7 +31,9 @@ import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static com.google.common.truth.Truth.assertThat;
 
@@ -142,4 +144,112 @@ public class MotionObservableTests {
 
     assertThat(tracker.values).isEqualTo(Arrays.asList(6f, 7f, 8f));
   }
+
+  @Test
+  public void fusedMapAndFilterChain() {
+    TrackingMotionObserver<Float> tracker = new TrackingMotionObserver<>();
+    ReactiveProperty<Float> property = ReactiveProperty.of(1f);
+
+    MotionObservable<Float> doubled =
+      property.getStream().compose(new SameTypedMapOperation<Float>() {
+        @Override
+        public Float transform(Float value) {
+          return value * 2f;
+        }
+      });
+    doubled
+      .compose(new FilterOperation<Float>() {
+        @Override
+        public boolean filter(Float value) {
+          return value > 2f;
+        }
+      })
+      .compose(new SameTypedMapOperation<Float>() {
+        @Override
+        public Float transform(Float value) {
+          return value + 1f;
+        }
+      })
+      .subscribe(tracker);
+
+    property.write(2f);
+    property.write(0f);
+    property.write(3f);
+
+    assertThat(tracker.values).isEqualTo(Arrays.asList(5f, 7f));
+
+    TrackingMotionObserver<Float> intermediate = new TrackingMotionObserver<>();
+    doubled.subscribe(intermediate);
+    assertThat(intermediate.values).isEqualTo(Arrays.asList(6f));
+  }
+
+  @Test
+  public void fusedSameTypedChainForwardsBuild() {
+    final Float[][] built = new Float[1][];
+    MotionObservable<Float> source = new MotionObservable<>(
+      new IndefiniteObservable.Connector<MotionObserver<Float>>() {
+        @NonNull
+        @Override
+        public IndefiniteObservable.Disconnector connect(MotionObserver<Float> observer) {
+          observer.build(null, 1f, 2f);
+          return IndefiniteObservable.Disconnector.NO_OP;
+        }
+      });
+
+    SameTypedMapOperation<Float> addOne = new SameTypedMapOperation<Float>() {
+      @Override
+      public Float transform(Float value) {
+        return value + 1f;
+      }
+    };
+    source.compose(addOne).compose(addOne).subscribe(new MotionObserver<Float>() {
+      @Override
+      public void next(Float value) {
+      }
+
+      @Override
+      public void build(MotionBuilder<Float> builder, Float[] values) {
+        built[0] = values;
+      }
+    });
+
+    assertThat(Arrays.asList(built[0])).isEqualTo(Arrays.asList(3f, 4f));
+  }
+
+  @Test
+  public void mapWithLifecycleHooksIsNotFused() {
+    final List<String> events = new ArrayList<>();
+    TrackingMotionObserver<Float> tracker = new TrackingMotionObserver<>();
+    ReactiveProperty<Float> property = ReactiveProperty.of(1f);
+
+    Subscription subscription = property.getStream()
+      .compose(new SameTypedMapOperation<Float>() {
+        @Override
+        public Float transform(Float value) {
+          return value * 2f;
+        }
+      })
+      .compose(new SameTypedMapOperation<Float>() {
+        @Override
+        public Float transform(Float value) {
+          return value + 1f;
+        }
+
+        @Override
+        public void preConnect(MotionObserver<Float> observer) {
+          events.add("preConnect");
+        }
+
+        @Override
+        public void postDisconnect(MotionObserver<Float> observer) {
+          events.add("postDisconnect");
+        }
+      })
+      .subscribe(tracker);
+    property.write(2f);
+    subscription.unsubscribe();
+
+    assertThat(tracker.values).isEqualTo(Arrays.asList(3f, 5f));
+    assertThat(events).isEqualTo(Arrays.asList("preConnect", "postDisconnect"));
+  }
 }
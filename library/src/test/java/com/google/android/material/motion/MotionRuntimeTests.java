@@ -18,6 +18,7 @@ package com.google.android.material.motion;
 import android.app.Activity;
 import android.graphics.Color;
 import android.graphics.PointF;
+import android.util.Property;
 import android.view.View;
 
 import com.google.android.material.motion.testing.SimulatedMotionSource;
@@ -29,6 +30,11 @@ import org.junit.runner.RunWith;
 import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static com.google.common.truth.Truth.assertThat;
 
@@ -212,4 +218,272 @@ public class MotionRuntimeTests {
     source.next(5f);
     assertThat(target.getTranslationX()).isWithin(E).of(5f);
   }
+
+  @Test
+  public void coalescedWritesApplyLatestValueOnNextFrame() {
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    TrackingMotionObserver<Float> tracker = new TrackingMotionObserver<>();
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+    property.subscribe(tracker);
+
+    runtime.write(source.getObservable(), property, MotionRuntime.WriteMode.COALESCED);
+    source.next(5f);
+    source.next(6f);
+    source.next(7f);
+    assertThat(property.read()).isWithin(0f).of(0f);
+
+    ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    assertThat(property.read()).isWithin(0f).of(7f);
+    assertThat(tracker.values).isEqualTo(Arrays.asList(0f, 7f));
+  }
+
+  @Test
+  public void coalescedWritesCopyReusedPoints() {
+    ReusedPointF.setEnabled(true);
+    try {
+      SimulatedMotionSource<PointF> source = new SimulatedMotionSource<>();
+      ReactiveProperty<PointF> property = ReactiveProperty.of(new PointF());
+      PointF scratch = new PointF();
+
+      runtime.write(source.getObservable(), property, MotionRuntime.WriteMode.COALESCED);
+      source.next(ReusedPointF.obtain(scratch, 5f, 5f));
+      scratch.set(-1f, -1f);
+      ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+      assertThat(property.read()).isEqualTo(new PointF(5f, 5f));
+
+      source.next(ReusedPointF.obtain(scratch, 6f, 6f));
+      source.next(ReusedPointF.obtain(scratch, 7f, 7f));
+      scratch.set(-1f, -1f);
+      ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+      assertThat(property.read()).isEqualTo(new PointF(7f, 7f));
+    } finally {
+      ReusedPointF.setEnabled(false);
+    }
+  }
+
+  @Test
+  public void runtimeWriteModeAppliesToSubsequentWrites() {
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+
+    runtime.setWriteMode(MotionRuntime.WriteMode.COALESCED);
+    runtime.write(source.getObservable(), property);
+    source.next(5f);
+    assertThat(property.read()).isWithin(0f).of(0f);
+
+    ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    assertThat(property.read()).isWithin(0f).of(5f);
+  }
+
+  @Test
+  public void coalescedWritesAreBatchedPerTarget() {
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    BatchedTarget first = new BatchedTarget();
+    BatchedTarget second = new BatchedTarget();
+
+    runtime.setWriteMode(MotionRuntime.WriteMode.COALESCED);
+    runtime.write(source.getObservable(), first, BatchedTarget.A);
+    runtime.write(source.getObservable(), second, BatchedTarget.A);
+    runtime.write(source.getObservable(), first, BatchedTarget.B);
+    source.next(5f);
+
+    ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    assertThat(first.events).isEqualTo(Arrays.asList("begin", "a", "b", "end"));
+    assertThat(second.events).isEqualTo(Arrays.asList("begin", "a", "end"));
+  }
+
+  @Test
+  public void removeInteractionStopsStartingIt() {
+    Interaction<View, Float> a = new TranslationXInteraction(new SimulatedMotionSource<Float>());
+    Interaction<View, Float> b = new TranslationXInteraction(new SimulatedMotionSource<Float>());
+
+    runtime.start(a, b, MotionState.ACTIVE);
+    a.enabled.write(false);
+    b.state.write(MotionState.ACTIVE);
+    assertThat(a.enabled.read()).isTrue();
+
+    runtime.removeInteraction(a);
+    a.enabled.write(false);
+    b.state.write(MotionState.AT_REST);
+    b.state.write(MotionState.ACTIVE);
+    assertThat(a.enabled.read()).isFalse();
+  }
+
+  @Test
+  public void removeInteractionUnsubscribesItsStreams() {
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    View target = new View(Robolectric.setupActivity(Activity.class));
+    Interaction<View, Float> interaction = new TranslationXInteraction(source);
+
+    runtime.addInteraction(interaction, target);
+    source.next(5f);
+    assertThat(target.getTranslationX()).isWithin(E).of(5f);
+
+    runtime.removeInteraction(interaction);
+    source.next(10f);
+    assertThat(target.getTranslationX()).isWithin(E).of(5f);
+    assertThat(runtime.interactions(TranslationXInteraction.class, target)).isEmpty();
+  }
+
+  @Test
+  public void detachUnsubscribesEverythingOwnedByTarget() {
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    View target = new View(Robolectric.setupActivity(Activity.class));
+    View other = new View(Robolectric.setupActivity(Activity.class));
+
+    runtime.addInteraction(new TranslationXInteraction(source), target);
+    runtime.write(source.getObservable(), target, View.TRANSLATION_Y);
+    runtime.write(source.getObservable(), other, View.TRANSLATION_Y);
+
+    runtime.detach(target);
+    source.next(5f);
+    assertThat(target.getTranslationX()).isWithin(E).of(0f);
+    assertThat(target.getTranslationY()).isWithin(E).of(0f);
+    assertThat(other.getTranslationY()).isWithin(E).of(5f);
+  }
+
+  @Test
+  public void removeInteractionDropsItsPendingWrites() {
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    View target = new View(Robolectric.setupActivity(Activity.class));
+    Interaction<View, Float> interaction = new TranslationXInteraction(source);
+
+    runtime.setWriteMode(MotionRuntime.WriteMode.COALESCED);
+    runtime.addInteraction(interaction, target);
+    source.next(5f);
+    runtime.removeInteraction(interaction);
+
+    ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    assertThat(target.getTranslationX()).isWithin(E).of(0f);
+  }
+
+  @Test
+  public void detachDropsPendingWritesOfTarget() {
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    View target = new View(Robolectric.setupActivity(Activity.class));
+    View other = new View(Robolectric.setupActivity(Activity.class));
+
+    runtime.setWriteMode(MotionRuntime.WriteMode.COALESCED);
+    runtime.addInteraction(new TranslationXInteraction(source), target);
+    runtime.write(source.getObservable(), target, View.TRANSLATION_Y);
+    runtime.write(source.getObservable(), other, View.TRANSLATION_Y);
+    source.next(5f);
+    runtime.detach(target);
+
+    ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    assertThat(target.getTranslationX()).isWithin(E).of(0f);
+    assertThat(target.getTranslationY()).isWithin(E).of(0f);
+    assertThat(other.getTranslationY()).isWithin(E).of(5f);
+  }
+
+  @Test
+  public void disposeUnsubscribesEverything() {
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    View target = new View(Robolectric.setupActivity(Activity.class));
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+
+    runtime.addInteraction(new TranslationXInteraction(source), target);
+    runtime.write(source.getObservable(), property);
+
+    runtime.dispose();
+    source.next(5f);
+    assertThat(target.getTranslationX()).isWithin(E).of(0f);
+    assertThat(property.read()).isWithin(E).of(0f);
+  }
+
+  @Test
+  public void interactionsReturnsCachedSnapshotPerClass() {
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    View target = new View(Robolectric.setupActivity(Activity.class));
+    assertThat(runtime.interactions(TranslationXInteraction.class, target)).isEmpty();
+
+    TranslationXInteraction first = new TranslationXInteraction(source);
+    runtime.addInteraction(first, target);
+    List<TranslationXInteraction> interactions =
+      runtime.interactions(TranslationXInteraction.class, target);
+    assertThat(interactions).containsExactly(first);
+    assertThat(runtime.interactions(TranslationXInteraction.class, target))
+      .isSameAs(interactions);
+
+    TranslationXInteraction second = new TranslationXInteraction(source);
+    runtime.addInteraction(second, target);
+    assertThat(interactions).containsExactly(first);
+    assertThat(runtime.interactions(TranslationXInteraction.class, target))
+      .containsExactly(first, second).inOrder();
+
+    runtime.removeInteraction(first);
+    assertThat(runtime.interactions(TranslationXInteraction.class, target))
+      .containsExactly(second);
+  }
+
+  @Test
+  public void interactionsCanBeRemovedWhileIterating() {
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    View target = new View(Robolectric.setupActivity(Activity.class));
+    runtime.addInteraction(new TranslationXInteraction(source), target);
+    runtime.addInteraction(new TranslationXInteraction(source), target);
+
+    for (TranslationXInteraction interaction :
+      runtime.interactions(TranslationXInteraction.class, target)) {
+      runtime.removeInteraction(interaction);
+    }
+
+    assertThat(runtime.interactions(TranslationXInteraction.class, target)).isEmpty();
+  }
+
+  private static class TranslationXInteraction extends Interaction<View, Float> {
+
+    private final SimulatedMotionSource<Float> source;
+
+    TranslationXInteraction(SimulatedMotionSource<Float> source) {
+      this.source = source;
+    }
+
+    @Override
+    protected void apply(
+      MotionRuntime runtime, View target, ConstraintApplicator<Float> constraints) {
+      runtime.write(constraints.apply(source.getObservable()), target, View.TRANSLATION_X);
+    }
+  }
+
+  private static class BatchedTarget implements BatchedWriteTarget {
+
+    static final Property<BatchedTarget, Float> A = new Property<BatchedTarget, Float>(
+      Float.class, "a") {
+      @Override
+      public Float get(BatchedTarget object) {
+        return 0f;
+      }
+
+      @Override
+      public void set(BatchedTarget object, Float value) {
+        object.events.add("a");
+      }
+    };
+
+    static final Property<BatchedTarget, Float> B = new Property<BatchedTarget, Float>(
+      Float.class, "b") {
+      @Override
+      public Float get(BatchedTarget object) {
+        return 0f;
+      }
+
+      @Override
+      public void set(BatchedTarget object, Float value) {
+        object.events.add("b");
+      }
+    };
+
+    final List<String> events = new ArrayList<>();
+
+    @Override
+    public void onBeginBatch() {
+      events.add("begin");
+    }
+
+    @Override
+    public void onEndBatch() {
+      events.add("end");
+    }
+  }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import com.google.android.material.motion.testing.SimulatedMotionSource;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.google.android.material.motion.operators.Dedupe.dedupe;
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class MotionTraceTests {
+
+  @After
+  public void tearDown() {
+    MotionTrace.stop();
+    MotionTrace.setSystemTraceEnabled(false);
+    MotionTrace.clear();
+  }
+
+  @Test
+  public void recordsNothingWhenStopped() {
+    MotionTrace.beginSection("a");
+    MotionTrace.endSection("a");
+
+    assertThat(MotionTrace.toJson()).isEqualTo("{\"traceEvents\":[]}");
+  }
+
+  @Test
+  public void exportsBeginAndEndEvents() {
+    MotionTrace.start(16);
+    MotionTrace.beginSection("outer");
+    MotionTrace.beginSection("inner \"quoted\"");
+    MotionTrace.endSection("inner \"quoted\"");
+    MotionTrace.endSection("outer");
+    MotionTrace.stop();
+
+    String json = MotionTrace.toJson();
+    assertThat(json)
+      .startsWith("{\"traceEvents\":[{\"name\":\"outer\",\"cat\":\"motion\",\"ph\":\"B\"");
+    assertThat(json).contains("\"name\":\"inner \\\"quoted\\\"\"");
+    assertThat(json).contains("\"ph\":\"E\"");
+    assertThat(json).endsWith("}]}");
+  }
+
+  @Test
+  public void dropsEndEventsWhoseBeginWasOverwritten() {
+    MotionTrace.start(3);
+    MotionTrace.beginSection("a");
+    MotionTrace.beginSection("b");
+    MotionTrace.endSection("b");
+    MotionTrace.endSection("a");
+
+    String json = MotionTrace.toJson();
+    assertThat(json).doesNotContain("\"name\":\"a\"");
+    assertThat(json).contains("\"name\":\"b\"");
+  }
+
+  @Test
+  public void tracesOperatorsAndRuntimeWrites() {
+    MotionTrace.start(64);
+
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+    new MotionRuntime().write(source.getObservable().compose(dedupe()), property);
+    source.next(1f);
+
+    String json = MotionTrace.toJson();
+    assertThat(json).contains("\"name\":\"Dedupe$1\"");
+    assertThat(json).contains("\"name\":\"write ReactiveProperty$ValueReactiveProperty\"");
+  }
+
+  @Test
+  public void tracesFloatStages() {
+    MotionTrace.start(64);
+
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+    new MotionRuntime().write(
+      source.getObservable().compose(new Unbox()).compose(new Negate()).compose(new Box()),
+      property);
+    source.next(1f);
+
+    String json = MotionTrace.toJson();
+    assertThat(property.read()).isWithin(0f).of(-1f);
+    assertThat(json).contains("\"name\":\"MotionTraceTests$Unbox\"");
+    assertThat(json).contains("\"name\":\"MotionTraceTests$Negate\"");
+    assertThat(json).contains("\"name\":\"MotionTraceTests$Box\"");
+  }
+
+  @Test
+  public void tracesPropertyWrites() {
+    MotionTrace.start(16);
+
+    ReactiveProperty.of(0f).write(1f);
+
+    assertThat(MotionTrace.toJson())
+      .contains("\"name\":\"set ReactiveProperty$ValueReactiveProperty\"");
+  }
+
+  @Test
+  public void systemTraceDoesNotRecord() {
+    MotionTrace.setSystemTraceEnabled(true);
+
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+    property.write(1f);
+
+    assertThat(property.read()).isWithin(0f).of(1f);
+    assertThat(MotionTrace.toJson()).isEqualTo("{\"traceEvents\":[]}");
+  }
+
+  @Test
+  public void sectionNamesAreTruncated() {
+    StringBuilder name = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      name.append('a');
+    }
+
+    assertThat(MotionTrace.sectionName(name.toString()).length()).isEqualTo(127);
+    assertThat(MotionTrace.sectionName("short")).isEqualTo("short");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsNonPositiveCapacity() {
+    MotionTrace.start(0);
+  }
+
+  private static final class Unbox extends ToFloatOperation<Float> {
+
+    @Override
+    public void next(FloatMotionObserver observer, Float value) {
+      observer.next(value.floatValue());
+    }
+  }
+
+  private static final class Negate extends FloatOperation {
+
+    @Override
+    public void next(FloatMotionObserver observer, float value) {
+      observer.next(-value);
+    }
+  }
+
+  private static final class Box extends FloatToObjectOperation<Float> {
+
+    @Override
+    public void next(MotionObserver<Float> observer, float value) {
+      observer.next(value);
+    }
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import com.google.android.material.motion.MotionObserver.SimpleMotionObserver;
+import com.google.android.material.motion.Propagation.Reaction;
+import com.google.android.material.motion.operators.Dedupe;
+import com.google.android.material.motion.testing.SimulatedMotionSource;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.android.material.motion.operators.OffsetBy.floatOffsetBy;
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class PropagationTests {
+
+  private final List<String> events = new ArrayList<>();
+
+  @Test
+  public void reactionRunsImmediatelyOutsideTransaction() {
+    Propagation.schedule(new RecordingReaction("a", 0));
+
+    assertThat(events).isEqualTo(Arrays.asList("a"));
+    assertThat(Propagation.isInTransaction()).isFalse();
+  }
+
+  @Test
+  public void reactionRunsOncePerTransaction() {
+    Reaction reaction = new RecordingReaction("a", 0);
+
+    Propagation.begin();
+    Propagation.schedule(reaction);
+    Propagation.schedule(reaction);
+    Propagation.begin();
+    Propagation.schedule(reaction);
+    Propagation.end();
+    assertThat(events).isEmpty();
+    Propagation.end();
+
+    assertThat(events).isEqualTo(Arrays.asList("a"));
+  }
+
+  @Test
+  public void reactionsRunInRankOrder() {
+    Propagation.begin();
+    Propagation.schedule(new RecordingReaction("c", 2));
+    Propagation.schedule(new RecordingReaction("a", 0));
+    Propagation.schedule(new RecordingReaction("b", 1));
+    Propagation.schedule(new RecordingReaction("b2", 1));
+    Propagation.end();
+
+    assertThat(events).isEqualTo(Arrays.asList("a", "b", "b2", "c"));
+  }
+
+  @Test
+  public void diamondReactionSeesConsistentState() {
+    final ReactiveProperty<Float> source = ReactiveProperty.of(0f);
+    final ReactiveProperty<Float> left = ReactiveProperty.of(0f);
+    final ReactiveProperty<Float> right = ReactiveProperty.of(0f);
+
+    source.subscribe(new SimpleMotionObserver<Float>() {
+      @Override
+      public void next(Float value) {
+        left.write(value + 1);
+      }
+    });
+    source.subscribe(new SimpleMotionObserver<Float>() {
+      @Override
+      public void next(Float value) {
+        right.write(value * 2);
+      }
+    });
+
+    final Reaction sum = new Reaction() {
+      @Override
+      protected void react() {
+        events.add(String.valueOf(left.read() + right.read()));
+      }
+    };
+    SimpleMotionObserver<Float> scheduler = new SimpleMotionObserver<Float>() {
+      @Override
+      public void next(Float value) {
+        Propagation.schedule(sum);
+      }
+    };
+    left.subscribe(scheduler);
+    right.subscribe(scheduler);
+    events.clear();
+
+    Propagation.attach(sum);
+    try {
+      source.write(3f);
+    } finally {
+      Propagation.detach(sum);
+    }
+
+    assertThat(events).isEqualTo(Arrays.asList("10.0"));
+  }
+
+  @Test
+  public void writesOpenNoTransactionWithoutAttachedReactions() {
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+    final boolean[] inTransaction = new boolean[1];
+    property.subscribe(new SimpleMotionObserver<Float>() {
+      @Override
+      public void next(Float value) {
+        inTransaction[0] = Propagation.isInTransaction();
+      }
+    });
+
+    property.write(1f);
+
+    assertThat(inTransaction[0]).isFalse();
+  }
+
+  @Test
+  public void propertyDepthFollowsOperatorStages() {
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    ReactiveProperty<Float> shallow = ReactiveProperty.of(0f);
+    ReactiveProperty<Float> deep = ReactiveProperty.of(0f);
+    MotionRuntime runtime = new MotionRuntime();
+
+    runtime.write(source.getObservable(), shallow);
+    runtime.write(
+      FloatMotionObservable.from(shallow.getStream().compose(Dedupe.<Float>dedupe()))
+        .compose(floatOffsetBy(1f)),
+      deep);
+
+    assertThat(shallow.depth()).isEqualTo(1);
+    assertThat(deep.depth()).isEqualTo(4);
+  }
+
+  @Test
+  public void reactionsRunInDepthOrder() {
+    SimulatedMotionSource<Float> source = new SimulatedMotionSource<>();
+    ReactiveProperty<Float> shallow = ReactiveProperty.of(0f);
+    ReactiveProperty<Float> deep = ReactiveProperty.of(0f);
+    MotionRuntime runtime = new MotionRuntime();
+    runtime.write(source.getObservable(), shallow);
+    runtime.write(shallow.getStream().compose(Dedupe.<Float>dedupe()), deep);
+
+    Reaction readsDeep = new RecordingReaction("deep", 0);
+    readsDeep.rankAfter(deep);
+    Reaction readsShallow = new RecordingReaction("shallow", 0);
+    readsShallow.rankAfter(shallow);
+
+    Propagation.begin();
+    Propagation.schedule(readsDeep);
+    Propagation.schedule(readsShallow);
+    Propagation.end();
+
+    assertThat(events).isEqualTo(Arrays.asList("shallow", "deep"));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void unbalancedEndThrows() {
+    Propagation.end();
+  }
+
+  private class RecordingReaction extends Reaction {
+
+    private final String name;
+
+    RecordingReaction(String name, int rank) {
+      super(rank);
+      this.name = name;
+    }
+
+    @Override
+    protected void react() {
+      events.add(name);
+    }
+  }
+}
@@ -16,6 +16,8 @@
 package com.google.android.material.motion;
 
 import android.app.Activity;
+import android.graphics.PointF;
+import android.util.Property;
 import android.view.View;
 
 import com.google.android.material.motion.testing.TrackingMotionObserver;
@@ -74,4 +76,35 @@ public class PropertyReactivePropertyTests {
     property.write(.5f);
     assertThat(tracker.values).isEqualTo(Arrays.asList(1f, .5f));
   }
+
+  @Test
+  public void sameInstanceForSameViewAndProperty() {
+    assertThat(ReactiveProperty.of(target, View.ALPHA)).isSameAs(property);
+    assertThat(ReactiveProperty.of(target, View.SCALE_X)).isNotSameAs(property);
+  }
+
+  @Test
+  public void nonViewTargetsAreKeyedByIdentity() {
+    PointF first = new PointF(1f, 2f);
+    PointF equal = new PointF(1f, 2f);
+
+    ReactiveProperty<Float> firstX = ReactiveProperty.of(first, POINT_X);
+    ReactiveProperty<Float> equalX = ReactiveProperty.of(equal, POINT_X);
+
+    assertThat(ReactiveProperty.of(first, POINT_X)).isSameAs(firstX);
+    assertThat(equalX).isNotSameAs(firstX);
+  }
+
+  private static final Property<PointF, Float> POINT_X =
+    new Property<PointF, Float>(Float.class, "x") {
+      @Override
+      public Float get(PointF object) {
+        return object.x;
+      }
+
+      @Override
+      public void set(PointF object, Float value) {
+        object.x = value;
+      }
+    };
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion;
+
+import android.graphics.PointF;
+
+import com.google.android.material.motion.MotionObserver.SimpleMotionObserver;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.android.material.motion.operators.OffsetBy.offsetAllBy;
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class ReusedPointFTests {
+
+  @After
+  public void tearDown() {
+    ReusedPointF.setEnabled(false);
+  }
+
+  @Test
+  public void emitsNewPointsByDefault() {
+    List<PointF> values = collectOffsetPoints();
+
+    assertThat(values.get(0)).isNotSameAs(values.get(1));
+    assertThat(values.get(0)).isEqualTo(new PointF(2f, 2f));
+    assertThat(values.get(1)).isEqualTo(new PointF(3f, 3f));
+  }
+
+  @Test
+  public void reusesPointWhenEnabled() {
+    ReusedPointF.setEnabled(true);
+
+    List<PointF> values = collectOffsetPoints();
+
+    assertThat(values.get(0)).isSameAs(values.get(1));
+  }
+
+  @Test
+  public void retainCopiesWhenEnabled() {
+    ReusedPointF.setEnabled(true);
+    PointF point = new PointF(1f, 2f);
+
+    PointF retained = ReusedPointF.retain(point);
+
+    assertThat(retained).isNotSameAs(point);
+    assertThat(retained).isEqualTo(point);
+  }
+
+  private List<PointF> collectOffsetPoints() {
+    final List<PointF> values = new ArrayList<>();
+    ReactiveProperty<PointF> property = ReactiveProperty.of(new PointF(1f, 1f));
+    property.getStream()
+      .compose(offsetAllBy(1f))
+      .subscribe(new SimpleMotionObserver<PointF>() {
+        @Override
+        public void next(PointF value) {
+          values.add(value);
+        }
+      });
+    property.write(new PointF(2f, 2f));
+    return values;
+  }
+}
@@ -93,4 +93,77 @@ public class ValueReactivePropertyTests {
 
     assertThat(tracker.values).isEqualTo(Arrays.asList(5f, 7f));
   }
+
+  @Test
+  public void multipleObserversNotifiedAndRemoved() {
+    TrackingMotionObserver<Float> first = new TrackingMotionObserver<>();
+    TrackingMotionObserver<Float> second = new TrackingMotionObserver<>();
+    TrackingMotionObserver<Float> third = new TrackingMotionObserver<>();
+
+    property.subscribe(first);
+    IndefiniteObservable.Subscription subscription = property.subscribe(second);
+    property.subscribe(third);
+    property.write(7f);
+
+    subscription.unsubscribe();
+    property.write(10f);
+
+    assertThat(first.values).isEqualTo(Arrays.asList(5f, 7f, 10f));
+    assertThat(second.values).isEqualTo(Arrays.asList(5f, 7f));
+    assertThat(third.values).isEqualTo(Arrays.asList(5f, 7f, 10f));
+  }
+
+  @Test
+  public void observerCanUnsubscribeDuringDispatch() {
+    final IndefiniteObservable.Subscription[] subscription =
+      new IndefiniteObservable.Subscription[1];
+    final TrackingMotionObserver<Float> tracker = new TrackingMotionObserver<Float>() {
+      @Override
+      public void next(Float value) {
+        super.next(value);
+        if (value == 7f) {
+          subscription[0].unsubscribe();
+        }
+      }
+    };
+    TrackingMotionObserver<Float> other = new TrackingMotionObserver<>();
+
+    subscription[0] = property.subscribe(tracker);
+    property.subscribe(other);
+    property.write(7f);
+    property.write(10f);
+
+    assertThat(tracker.values).isEqualTo(Arrays.asList(5f, 7f));
+    assertThat(other.values).isEqualTo(Arrays.asList(5f, 7f, 10f));
+  }
+
+  @Test
+  public void streamIsShared() {
+    assertThat(property.getStream()).isSameAs(property.getStream());
+  }
+
+  @Test
+  public void subscribeUsesOverriddenStream() {
+    final MotionObservable<Float> stream = ReactiveProperty.of(3f).getStream();
+    ReactiveProperty<Float> overridden = new ReactiveProperty<Float>() {
+      @Override
+      public Float read() {
+        return 0f;
+      }
+
+      @Override
+      public void write(Float value) {
+      }
+
+      @Override
+      public MotionObservable<Float> getStream() {
+        return stream;
+      }
+    };
+    TrackingMotionObserver<Float> tracker = new TrackingMotionObserver<>();
+
+    overridden.subscribe(tracker);
+
+    assertThat(tracker.values).isEqualTo(Arrays.asList(3f));
+  }
 }
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion.benchmarks;
+
+import android.app.Activity;
+import android.graphics.PointF;
+import android.view.MotionEvent;
+import android.view.MotionEvent.PointerCoords;
+import android.view.MotionEvent.PointerProperties;
+import android.view.View;
+
+import com.google.android.material.motion.Interaction;
+import com.google.android.material.motion.MotionRuntime;
+import com.google.android.material.motion.ReactiveProperty;
+import com.google.android.material.motion.ReusedPointF;
+import com.google.android.material.motion.gestures.BuildConfig;
+import com.google.android.material.motion.interactions.DirectlyManipulable;
+import com.google.android.material.motion.interactions.Draggable;
+import com.google.android.material.motion.interactions.Pinchable;
+import com.google.android.material.motion.interactions.Rotatable;
+import com.google.android.material.motion.interactions.SetPositionOnTap;
+import com.google.android.material.motion.interactions.Tossable;
+import com.google.android.material.motion.properties.ViewProperties;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+/**
+ * Feeds synthetic touch sequences through each standard interaction and checks the number of bytes
+ * allocated per event. Interactions whose per-event path only writes points must not allocate at
+ * all. The others are checked against the committed baseline in {@code
+ * allocation-baseline.properties}, and fail if they have no entry.
+ * <p>
+ * Allocations are measured with the per-thread allocation counter of the JVM. The allocations of
+ * the framework's touch dispatch under Robolectric are measured on a view without interactions and
+ * subtracted. Point reuse is enabled, since that is the mode in which the per-event path is meant
+ * to be allocation-free.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class AllocationRegressionTests {
+
+  private static final int WARM_UP_REPETITIONS = 5;
+  private static final int REPETITIONS = 20;
+  private static final int MOVE_EVENTS = 20;
+
+  /**
+   * Bytes per event above the baseline that are tolerated as measurement noise.
+   */
+  private static final long TOLERANCE_BYTES = 8;
+
+  private com.sun.management.ThreadMXBean threads;
+  private Activity activity;
+  private MotionRuntime runtime;
+
+  @Before
+  public void setUp() {
+    java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+    this.threads = (com.sun.management.ThreadMXBean) threads;
+    Assume.assumeTrue(this.threads.isThreadAllocatedMemorySupported());
+    this.threads.setThreadAllocatedMemoryEnabled(true);
+
+    ReusedPointF.setEnabled(true);
+    activity = Robolectric.setupActivity(Activity.class);
+    runtime = new MotionRuntime();
+  }
+
+  @After
+  public void tearDown() {
+    if (runtime != null) {
+      runtime.dispose();
+    }
+    ReusedPointF.setEnabled(false);
+  }
+
+  @Test
+  public void draggable() {
+    checkAllocationFree("Draggable", measure(attach(new Draggable()), drag()));
+  }
+
+  @Test
+  public void pinchable() {
+    checkAllocationFree("Pinchable", measure(attach(new Pinchable()), twoFingerGesture(false)));
+  }
+
+  @Test
+  public void rotatable() throws IOException {
+    check("Rotatable", measure(attach(new Rotatable()), twoFingerGesture(true)));
+  }
+
+  @Test
+  public void tossable() throws IOException {
+    Tossable tossable =
+      new Tossable(ViewProperties.CENTER, ReactiveProperty.of(new PointF(0f, 0f)));
+    check("Tossable", measure(attach(tossable), drag()));
+  }
+
+  @Test
+  public void directlyManipulable() throws IOException {
+    check(
+      "DirectlyManipulable",
+      measure(attach(new DirectlyManipulable()), twoFingerGesture(true)));
+  }
+
+  @Test
+  public void setPositionOnTap() {
+    View container = new View(activity);
+    runtime.addInteraction(
+      new SetPositionOnTap(container), ReactiveProperty.of(new PointF(0f, 0f)));
+    checkAllocationFree("SetPositionOnTap", measure(container, tap()));
+  }
+
+  private <T> View attach(Interaction<View, T> interaction) {
+    View view = new View(activity);
+    runtime.addInteraction(interaction, view);
+    return view;
+  }
+
+  /**
+   * Returns the average number of bytes allocated per event by the interactions of the given view,
+   * excluding the allocations of the framework's touch dispatch.
+   */
+  private long measure(View view, MotionEvent[] events) {
+    View control = new View(activity);
+    control.setOnTouchListener(new View.OnTouchListener() {
+      @Override
+      public boolean onTouch(View v, MotionEvent event) {
+        return true;
+      }
+    });
+
+    long bytesPerEvent = allocatedPerEvent(view, events) - allocatedPerEvent(control, events);
+    return Math.max(bytesPerEvent, 0);
+  }
+
+  /**
+   * Returns the average number of bytes allocated per dispatched event. The events are dispatched
+   * a few times first, so that one-time allocations are not counted.
+   */
+  private long allocatedPerEvent(View view, MotionEvent[] events) {
+    for (int i = 0; i < WARM_UP_REPETITIONS; i++) {
+      dispatch(view, events);
+    }
+
+    long threadId = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < REPETITIONS; i++) {
+      dispatch(view, events);
+    }
+    long after = threads.getThreadAllocatedBytes(threadId);
+
+    return (after - before) / ((long) REPETITIONS * events.length);
+  }
+
+  private static void dispatch(View view, MotionEvent[] events) {
+    for (MotionEvent event : events) {
+      view.dispatchTouchEvent(event);
+    }
+  }
+
+  private static void checkAllocationFree(String name, long bytesPerEvent) {
+    assertWithMessage(name + " allocates " + bytesPerEvent + " bytes per event")
+      .that(bytesPerEvent)
+      .isAtMost(TOLERANCE_BYTES);
+  }
+
+  private static void check(String name, long bytesPerEvent) throws IOException {
+    File file = new File(System.getProperty("motion.allocationBaseline"));
+    Properties baseline = new Properties();
+    if (file.exists()) {
+      InputStream in = new FileInputStream(file);
+      try {
+        baseline.load(in);
+      } finally {
+        in.close();
+      }
+    }
+
+    if (Boolean.getBoolean("motion.updateAllocationBaseline")) {
+      baseline.setProperty(name, Long.toString(bytesPerEvent));
+      store(file, baseline);
+      return;
+    }
+
+    String expected = baseline.getProperty(name);
+    assertWithMessage("No allocation baseline recorded for " + name + " in " + file)
+      .that(expected)
+      .isNotNull();
+    assertWithMessage(
+      name + " allocates " + bytesPerEvent + " bytes per event, baseline is " + expected.trim())
+      .that(bytesPerEvent)
+      .isAtMost(Long.parseLong(expected.trim()) + TOLERANCE_BYTES);
+  }
+
+  /**
+   * Rewrites the baseline file with the given entries, sorted by name, keeping its leading comment
+   * block.
+   */
+  private static void store(File file, Properties baseline) throws IOException {
+    List<String> header = new ArrayList<>();
+    if (file.exists()) {
+      BufferedReader reader = new BufferedReader(new FileReader(file));
+      try {
+        String line;
+        while ((line = reader.readLine()) != null && line.startsWith("#")) {
+          header.add(line);
+        }
+      } finally {
+        reader.close();
+      }
+    }
+
+    List<String> names = new ArrayList<>(baseline.stringPropertyNames());
+    Collections.sort(names);
+
+    Writer writer = new FileWriter(file);
+    try {
+      for (String line : header) {
+        writer.write(line);
+        writer.write('\n');
+      }
+      if (!header.isEmpty()) {
+        writer.write('\n');
+      }
+      for (String name : names) {
+        writer.write(name);
+        writer.write('=');
+        writer.write(baseline.getProperty(name));
+        writer.write('\n');
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  private static MotionEvent[] tap() {
+    return new MotionEvent[]{
+      MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, 10f, 10f, 0),
+      MotionEvent.obtain(0, 50, MotionEvent.ACTION_UP, 10f, 10f, 0),
+    };
+  }
+
+  private static MotionEvent[] drag() {
+    List<MotionEvent> events = new ArrayList<>();
+    events.add(MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, 0f, 0f, 0));
+    for (int i = 1; i <= MOVE_EVENTS; i++) {
+      events.add(MotionEvent.obtain(0, i * 8, MotionEvent.ACTION_MOVE, i * 5f, i * 3f, 0));
+    }
+    events.add(MotionEvent.obtain(
+      0, (MOVE_EVENTS + 1) * 8, MotionEvent.ACTION_UP, MOVE_EVENTS * 5f, MOVE_EVENTS * 3f, 0));
+    return events.toArray(new MotionEvent[events.size()]);
+  }
+
+  /**
+   * Returns a two finger gesture in which the second finger either moves away from the first, or
+   * circles around it.
+   */
+  private static MotionEvent[] twoFingerGesture(boolean rotate) {
+    List<MotionEvent> events = new ArrayList<>();
+    events.add(MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, 100f, 100f, 0));
+    events.add(twoPointerEvent(
+      8,
+      MotionEvent.ACTION_POINTER_DOWN | (1 << MotionEvent.ACTION_POINTER_INDEX_SHIFT),
+      200f,
+      100f));
+    for (int i = 1; i <= MOVE_EVENTS; i++) {
+      float x;
+      float y;
+      if (rotate) {
+        double angle = Math.PI / 2 * i / MOVE_EVENTS;
+        x = 100f + (float) (100 * Math.cos(angle));
+        y = 100f + (float) (100 * Math.sin(angle));
+      } else {
+        x = 200f + i * 5f;
+        y = 100f;
+      }
+      events.add(twoPointerEvent(8 + i * 8, MotionEvent.ACTION_MOVE, x, y));
+    }
+    MotionEvent last = events.get(events.size() - 1);
+    events.add(twoPointerEvent(
+      (MOVE_EVENTS + 2) * 8,
+      MotionEvent.ACTION_POINTER_UP | (1 << MotionEvent.ACTION_POINTER_INDEX_SHIFT),
+      last.getX(1),
+      last.getY(1)));
+    events.add(MotionEvent.obtain(0, (MOVE_EVENTS + 3) * 8, MotionEvent.ACTION_UP, 100f, 100f, 0));
+    return events.toArray(new MotionEvent[events.size()]);
+  }
+
+  /**
+   * Returns an event with the first finger at (100, 100) and the second finger at (x, y).
+   */
+  private static MotionEvent twoPointerEvent(long eventTime, int action, float x, float y) {
+    PointerProperties[] properties = new PointerProperties[2];
+    PointerCoords[] coords = new PointerCoords[2];
+    for (int i = 0; i < 2; i++) {
+      properties[i] = new PointerProperties();
+      properties[i].id = i;
+      properties[i].toolType = MotionEvent.TOOL_TYPE_FINGER;
+      coords[i] = new PointerCoords();
+    }
+    coords[0].x = 100f;
+    coords[0].y = 100f;
+    coords[1].x = x;
+    coords[1].y = y;
+
+    return MotionEvent.obtain(
+      0, eventTime, action, 2, properties, coords, 0, 0, 1f, 1f, 0, 0, 0, 0);
+  }
+}
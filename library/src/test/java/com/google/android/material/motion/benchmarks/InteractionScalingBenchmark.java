@@ -0,0 +1,230 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion.benchmarks;
+
+import android.animation.TypeEvaluator;
+import android.animation.ValueAnimator;
+import android.app.Activity;
+import android.view.View;
+
+import com.google.android.material.motion.MotionRuntime;
+import com.google.android.material.motion.ReactiveProperty;
+import com.google.android.material.motion.gestures.BuildConfig;
+import com.google.android.material.motion.interactions.MaterialSpring;
+import com.google.android.material.motion.interactions.Tween;
+import com.google.android.material.motion.sources.DynamicSpringSource;
+import com.google.android.material.motion.sources.PhysicsSpringSource;
+import com.google.android.material.motion.sources.SpringSource;
+import com.google.android.material.motion.springs.FloatVectorizer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowChoreographer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.android.material.motion.benchmarks.MacroBenchmarks.collectionCount;
+import static com.google.android.material.motion.benchmarks.MacroBenchmarks.cpuTime;
+import static com.google.android.material.motion.benchmarks.MacroBenchmarks.usedHeap;
+
+/**
+ * Measures how many springs and tweens one {@link MotionRuntime} can drive per frame.
+ * <p>
+ * For each interaction type, N interactions are attached to N views and the main looper is
+ * advanced one frame at a time. Springs are retargeted periodically so that they stay active. The
+ * benchmark reports the CPU time per frame, the number of frames over the 8 ms and 16 ms budgets,
+ * the heap retained per interaction and the number of garbage collections, for each N.
+ * <p>
+ * Only runs when requested: {@code ./gradlew :library:testDebugUnitTest -PmacroBenchmarks
+ * --tests '*InteractionScalingBenchmark'}
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class InteractionScalingBenchmark {
+
+  private static final int[] COUNTS = {10, 100, 1000};
+  private static final int FRAMES = 180;
+  private static final int FRAME_MILLIS = 16;
+  private static final int RETARGET_INTERVAL_FRAMES = 30;
+
+  private Activity activity;
+
+  @Before
+  public void setUp() {
+    MacroBenchmarks.assumeRequested();
+
+    // Deliver one animation frame per advance of the simulated clock.
+    ShadowChoreographer.setPostFrameCallbackDelay(FRAME_MILLIS);
+    activity = Robolectric.setupActivity(Activity.class);
+  }
+
+  @After
+  public void tearDown() {
+    ShadowChoreographer.setPostFrameCallbackDelay(0);
+  }
+
+  @Test
+  public void dynamicSprings() {
+    run("DynamicSpringSource", springs(DynamicSpringSource.SYSTEM));
+  }
+
+  @Test
+  public void physicsSprings() {
+    run("PhysicsSpringSource", springs(PhysicsSpringSource.SYSTEM));
+  }
+
+  @Test
+  public void tweens() {
+    run("Tween", new Scenario() {
+      @Override
+      public Runnable attach(MotionRuntime runtime, View view) {
+        Tween<View, Float> tween = new Tween<>(
+          view,
+          View.TRANSLATION_X,
+          FLOAT_EVALUATOR,
+          new Float[]{0f, 100f},
+          null,
+          null,
+          300L,
+          0L,
+          ValueAnimator.INFINITE,
+          ValueAnimator.REVERSE,
+          null);
+        runtime.addInteraction(tween, view);
+        return null;
+      }
+    });
+  }
+
+  private static Scenario springs(final SpringSource.System system) {
+    return new Scenario() {
+      @Override
+      public Runnable attach(MotionRuntime runtime, View view) {
+        final MaterialSpring<View, Float> spring = new MaterialSpring<>(
+          View.TRANSLATION_X,
+          new FloatVectorizer(),
+          ReactiveProperty.of(100f),
+          ReactiveProperty.of(view, View.TRANSLATION_X),
+          ReactiveProperty.of(0f),
+          ReactiveProperty.of(1f),
+          MaterialSpring.DEFAULT_TENSION_PROPERTY,
+          MaterialSpring.DEFAULT_FRICTION_PROPERTY,
+          system);
+        runtime.addInteraction(spring, view);
+
+        return new Runnable() {
+          @Override
+          public void run() {
+            spring.destination.write(spring.destination.read() == 100f ? 0f : 100f);
+          }
+        };
+      }
+    };
+  }
+
+  private void run(String name, Scenario scenario) {
+    System.out.println(name);
+    System.out.println(
+      "       N   median us    p95 us    max us  >8ms  >16ms  bytes/interaction  GCs");
+
+    for (int count : COUNTS) {
+      List<View> views = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        views.add(new View(activity));
+      }
+
+      long heapBefore = usedHeap();
+      MotionRuntime runtime = new MotionRuntime();
+      List<Runnable> retargets = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        Runnable retarget = scenario.attach(runtime, views.get(i));
+        if (retarget != null) {
+          retargets.add(retarget);
+        }
+      }
+      long bytesPerInteraction = (usedHeap() - heapBefore) / count;
+
+      long collectionsBefore = collectionCount();
+      long[] frameNanos = new long[FRAMES];
+      for (int frame = 0; frame < FRAMES; frame++) {
+        long start = cpuTime();
+        if (frame % RETARGET_INTERVAL_FRAMES == 0) {
+          for (int i = 0, size = retargets.size(); i < size; i++) {
+            retargets.get(i).run();
+          }
+        }
+        Robolectric.getForegroundThreadScheduler().advanceBy(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+        frameNanos[frame] = cpuTime() - start;
+      }
+      long collections = collectionCount() - collectionsBefore;
+
+      runtime.dispose();
+      report(count, frameNanos, bytesPerInteraction, collections);
+    }
+  }
+
+  private static void report(int count, long[] frameNanos, long bytes, long collections) {
+    int over8 = 0;
+    int over16 = 0;
+    for (long nanos : frameNanos) {
+      if (nanos > TimeUnit.MILLISECONDS.toNanos(8)) {
+        over8++;
+      }
+      if (nanos > TimeUnit.MILLISECONDS.toNanos(16)) {
+        over16++;
+      }
+    }
+
+    long[] sorted = frameNanos.clone();
+    Arrays.sort(sorted);
+    System.out.println(String.format(
+      Locale.US,
+      "%8d  %10d  %8d  %8d  %4d  %5d  %17d  %3d",
+      count,
+      TimeUnit.NANOSECONDS.toMicros(sorted[sorted.length / 2]),
+      TimeUnit.NANOSECONDS.toMicros(sorted[sorted.length * 95 / 100]),
+      TimeUnit.NANOSECONDS.toMicros(sorted[sorted.length - 1]),
+      over8,
+      over16,
+      bytes,
+      collections));
+  }
+
+  private static final TypeEvaluator<Float> FLOAT_EVALUATOR = new TypeEvaluator<Float>() {
+    @Override
+    public Float evaluate(float fraction, Float startValue, Float endValue) {
+      return startValue + fraction * (endValue - startValue);
+    }
+  };
+
+  private interface Scenario {
+
+    /**
+     * Attaches one interaction to the view and returns an action that retargets it, or null if it
+     * needs no retargeting to stay active.
+     */
+    Runnable attach(MotionRuntime runtime, View view);
+  }
+}
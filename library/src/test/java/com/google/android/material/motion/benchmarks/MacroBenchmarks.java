@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion.benchmarks;
+
+import org.junit.Assume;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Shared setup and measurements of the macro-benchmarks.
+ */
+final class MacroBenchmarks {
+
+  private MacroBenchmarks() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Skips the calling test unless macro-benchmarks were requested with {@code -PmacroBenchmarks}.
+   */
+  static void assumeRequested() {
+    Assume.assumeTrue(Boolean.getBoolean("motion.macroBenchmarks"));
+  }
+
+  /**
+   * Returns the CPU time of the current thread, or the wall time if it is not supported.
+   */
+  static long cpuTime() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads.isCurrentThreadCpuTimeSupported()) {
+      return threads.getCurrentThreadCpuTime();
+    }
+    return System.nanoTime();
+  }
+
+  /**
+   * Returns the heap in use after requesting garbage collections.
+   */
+  static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  /**
+   * Returns the number of garbage collections so far.
+   */
+  static long collectionCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, collector.getCollectionCount());
+    }
+    return count;
+  }
+}
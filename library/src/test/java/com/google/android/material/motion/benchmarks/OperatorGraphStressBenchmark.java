@@ -0,0 +1,157 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion.benchmarks;
+
+import com.google.android.material.motion.MotionGraph;
+import com.google.android.material.motion.MotionGraph.EdgeSnapshot;
+import com.google.android.material.motion.MotionRuntime;
+import com.google.android.material.motion.gestures.BuildConfig;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.android.material.motion.benchmarks.MacroBenchmarks.usedHeap;
+
+/**
+ * Drives randomly generated operator graphs of increasing depth and fan-out, to find operators
+ * whose cost grows faster than the graph.
+ * <p>
+ * Each configuration is built twice from the same seed. The first build runs with {@link
+ * MotionGraph} enabled and reports the peak number of open subscriptions while the graph is
+ * driven, and the number of subscriptions that are still open after {@link
+ * MotionRuntime#dispose()}. The second build runs without instrumentation and reports the build
+ * time, the heap retained per stream and the throughput of input writes and sink writes.
+ * <p>
+ * Only runs when requested: {@code ./gradlew :library:testDebugUnitTest -PmacroBenchmarks
+ * --tests '*OperatorGraphStressBenchmark'}. The seed can be set with {@code
+ * -PstressSeed=<seed>}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class OperatorGraphStressBenchmark {
+
+  private static final int[] DEPTHS = {2, 4, 6};
+  private static final int[] FAN_OUTS = {1, 2, 4};
+  private static final int INPUTS = 4;
+  private static final int MAX_WIDTH = 4096;
+  private static final int WARM_UP_ROUNDS = 20;
+  private static final int ROUNDS = 200;
+  private static final int SAMPLE_INTERVAL_ROUNDS = 20;
+
+  private long seed;
+
+  @Before
+  public void setUp() {
+    MacroBenchmarks.assumeRequested();
+    seed = Long.getLong("motion.stressSeed", 1L);
+  }
+
+  @After
+  public void tearDown() {
+    MotionGraph.setEnabled(false);
+  }
+
+  @Test
+  public void randomGraphs() {
+    System.out.println("Random operator graphs, seed " + seed);
+    System.out.println("depth  fan-out  streams  sinks  build ms  peak subs  leaked subs"
+      + "  inputs/s  sink writes/s  ns/sink write  bytes/stream");
+
+    for (int depth : DEPTHS) {
+      for (int fanOut : FAN_OUTS) {
+        run(depth, fanOut);
+      }
+    }
+  }
+
+  private void run(int depth, int fanOut) {
+    // Count subscriptions on an instrumented build.
+    MotionGraph.setEnabled(true);
+    int baseline = openSubscriptions();
+    MotionRuntime runtime = new MotionRuntime();
+    RandomOperatorGraph graph =
+      new RandomOperatorGraph(seed, runtime, INPUTS, depth, fanOut, MAX_WIDTH);
+    int peak = openSubscriptions() - baseline;
+    for (int round = 0; round < ROUNDS; round++) {
+      graph.drive(round);
+      if (round % SAMPLE_INTERVAL_ROUNDS == 0) {
+        peak = Math.max(peak, openSubscriptions() - baseline);
+      }
+    }
+    runtime.dispose();
+    int leaked = openSubscriptions() - baseline;
+    MotionGraph.setEnabled(false);
+
+    // Measure an uninstrumented build of the same graph. The instrumented build must be
+    // unreachable first, so that usedHeap() can collect it before the baseline is sampled.
+    //noinspection UnusedAssignment
+    runtime = null;
+    //noinspection UnusedAssignment
+    graph = null;
+    long heapBefore = usedHeap();
+    long buildStart = System.nanoTime();
+    runtime = new MotionRuntime();
+    graph = new RandomOperatorGraph(seed, runtime, INPUTS, depth, fanOut, MAX_WIDTH);
+    long buildNanos = System.nanoTime() - buildStart;
+    long bytesPerStream = (usedHeap() - heapBefore) / graph.streams;
+
+    for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+      graph.drive(round);
+    }
+    long writesBefore = graph.sinkWrites();
+    long start = System.nanoTime();
+    for (int round = 0; round < ROUNDS; round++) {
+      graph.drive(round);
+    }
+    long elapsed = System.nanoTime() - start;
+    long sinkWrites = graph.sinkWrites() - writesBefore;
+    runtime.dispose();
+
+    double seconds = elapsed / 1e9;
+    System.out.println(String.format(
+      Locale.US,
+      "%5d  %7d  %7d  %5d  %8d  %9d  %11d  %8.0f  %13.0f  %13d  %12d",
+      depth,
+      fanOut,
+      graph.streams,
+      graph.sinks.size(),
+      TimeUnit.NANOSECONDS.toMillis(buildNanos),
+      peak,
+      leaked,
+      ROUNDS * INPUTS / seconds,
+      sinkWrites / seconds,
+      sinkWrites == 0 ? 0 : elapsed / sinkWrites,
+      bytesPerStream));
+  }
+
+  /**
+   * Returns the number of subscriptions that are open in the instrumented graph.
+   */
+  private static int openSubscriptions() {
+    int count = 0;
+    for (EdgeSnapshot edge : MotionGraph.snapshot().edges) {
+      count += edge.connections;
+    }
+    return count;
+  }
+}
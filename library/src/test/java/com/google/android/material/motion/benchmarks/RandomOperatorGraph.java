@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion.benchmarks;
+
+import com.google.android.material.motion.MotionObservable;
+import com.google.android.material.motion.MotionRuntime;
+import com.google.android.material.motion.ReactiveProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.android.material.motion.operators.Dedupe.dedupe;
+import static com.google.android.material.motion.operators.LowerBound.lowerBound;
+import static com.google.android.material.motion.operators.Merge.merge;
+import static com.google.android.material.motion.operators.OffsetBy.offsetBy;
+import static com.google.android.material.motion.operators.Remember.remember;
+import static com.google.android.material.motion.operators.ScaledBy.scaledBy;
+import static com.google.android.material.motion.operators.StartWith.startWith;
+import static com.google.android.material.motion.operators.UpperBound.upperBound;
+
+/**
+ * Builds a random but valid graph of float streams from the existing operators, written to
+ * properties by a {@link MotionRuntime}.
+ * <p>
+ * The graph is built in levels. The first level consists of the streams of the input properties.
+ * Every stream of a following level applies a random operator to a random stream of the previous
+ * level, so each stream has {@code fanOut} downstream streams on average. Some operators merge a
+ * second stream of the previous level in, and some write the stream to an intermediate property
+ * and continue with the property's stream. Every stream of the last level is written to a sink
+ * property. The same seed always builds the same graph.
+ */
+final class RandomOperatorGraph {
+
+  private static final int OPERATORS = 9;
+
+  final List<ReactiveProperty<Float>> inputs = new ArrayList<>();
+  final List<SinkProperty> sinks = new ArrayList<>();
+  /**
+   * The number of streams created, including the input streams.
+   */
+  int streams;
+
+  private final Random random;
+  private final MotionRuntime runtime;
+
+  /**
+   * Builds the graph and subscribes every sink.
+   *
+   * @param maxWidth The maximum number of streams per level.
+   */
+  RandomOperatorGraph(
+    long seed, MotionRuntime runtime, int inputCount, int depth, int fanOut, int maxWidth) {
+    this.random = new Random(seed);
+    this.runtime = runtime;
+
+    List<MotionObservable<Float>> level = new ArrayList<>();
+    for (int i = 0; i < inputCount; i++) {
+      ReactiveProperty<Float> input = ReactiveProperty.of(0f);
+      inputs.add(input);
+      level.add(input.getStream());
+    }
+    streams = inputCount;
+
+    for (int d = 0; d < depth; d++) {
+      int width = Math.min(maxWidth, level.size() * fanOut);
+      List<MotionObservable<Float>> next = new ArrayList<>(width);
+      for (int i = 0; i < width; i++) {
+        next.add(compose(pick(level), level));
+      }
+      streams += width;
+      level = next;
+    }
+
+    for (int i = 0, count = level.size(); i < count; i++) {
+      SinkProperty sink = new SinkProperty();
+      sinks.add(sink);
+      runtime.write(level.get(i), sink);
+    }
+  }
+
+  /**
+   * Writes a new value to every input.
+   */
+  void drive(int round) {
+    for (int i = 0, count = inputs.size(); i < count; i++) {
+      inputs.get(i).write((float) (round % 100 + i));
+    }
+  }
+
+  /**
+   * Returns the total number of values written to the sinks.
+   */
+  long sinkWrites() {
+    long writes = 0;
+    for (int i = 0, count = sinks.size(); i < count; i++) {
+      writes += sinks.get(i).writes;
+    }
+    return writes;
+  }
+
+  private MotionObservable<Float> compose(
+    MotionObservable<Float> upstream, List<MotionObservable<Float>> level) {
+    switch (random.nextInt(OPERATORS)) {
+      case 0:
+        return upstream.compose(offsetBy(random.nextFloat() * 10f));
+      case 1:
+        return upstream.compose(scaledBy(0.5f + random.nextFloat()));
+      case 2:
+        return upstream.compose(dedupe());
+      case 3:
+        return upstream.compose(lowerBound(-random.nextFloat() * 100f));
+      case 4:
+        return upstream.compose(upperBound(random.nextFloat() * 1000f));
+      case 5:
+        return upstream.compose(remember());
+      case 6:
+        return upstream.compose(startWith(0f));
+      case 7:
+        return upstream.compose(merge(pick(level)));
+      default:
+        ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+        runtime.write(upstream, property);
+        return property.getStream();
+    }
+  }
+
+  private MotionObservable<Float> pick(List<MotionObservable<Float>> level) {
+    return level.get(random.nextInt(level.size()));
+  }
+
+  /**
+   * A property that counts the values written to it.
+   */
+  static final class SinkProperty extends ReactiveProperty<Float> {
+
+    private float value;
+    private long writes;
+
+    @Override
+    public Float read() {
+      return value;
+    }
+
+    @Override
+    public void write(Float value) {
+      this.value = value;
+      writes++;
+      onWrite(value);
+    }
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion.benchmarks;
+
+import android.app.Activity;
+import android.view.View;
+
+import com.google.android.material.motion.MotionRuntime;
+import com.google.android.material.motion.ReactiveProperty;
+import com.google.android.material.motion.gestures.BuildConfig;
+import com.google.android.material.motion.interactions.MaterialSpring;
+import com.google.android.material.motion.sources.DynamicSpringSource;
+import com.google.android.material.motion.sources.PhysicsSpringSource;
+import com.google.android.material.motion.sources.SpringSource;
+import com.google.android.material.motion.springs.FloatVectorizer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowChoreographer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.android.material.motion.benchmarks.MacroBenchmarks.cpuTime;
+
+/**
+ * Compares the trajectories and the cost of every {@link SpringSource.System} for identical
+ * {@link MaterialSpring} configurations.
+ * <p>
+ * Each system animates a batch of springs from 0 to 100 while the main looper is advanced one
+ * frame at a time. The benchmark reports the CPU time per spring and frame, the time until the
+ * spring stays within 1% of its destination, the number of frames until the system stops emitting
+ * values, and the error of the trajectory against the closed-form solution of a damped harmonic
+ * oscillator with the Origami stiffness and damping of the configuration.
+ * <p>
+ * The systems differ in when they take their first step, so trajectories are compared at the
+ * frame offset, of up to {@link #MAX_OFFSET_FRAMES}, that minimizes their error.
+ * <p>
+ * Only runs when requested: {@code ./gradlew :library:testDebugUnitTest -PmacroBenchmarks
+ * --tests '*SpringSolverBenchmark'}
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SpringSolverBenchmark {
+
+  private static final int SPRINGS = 100;
+  private static final int FRAMES = 300;
+  private static final int FRAME_MILLIS = 16;
+  private static final int MAX_OFFSET_FRAMES = 2;
+  private static final float DESTINATION = 100f;
+  private static final float SETTLE_DISTANCE = 1f;
+
+  private static final SpringConfig[] CONFIGS = {
+    new SpringConfig("default", MaterialSpring.DEFAULT_TENSION, MaterialSpring.DEFAULT_FRICTION),
+    new SpringConfig("bouncy", 342f, 10f),
+    new SpringConfig("soft", 100f, 12f),
+    new SpringConfig("stiff", 800f, 40f),
+  };
+
+  private static final String[] SYSTEM_NAMES = {"DynamicSpringSource", "PhysicsSpringSource"};
+  private static final SpringSource.System[] SYSTEMS =
+    {DynamicSpringSource.SYSTEM, PhysicsSpringSource.SYSTEM};
+
+  private Activity activity;
+
+  @Before
+  public void setUp() {
+    MacroBenchmarks.assumeRequested();
+
+    // Deliver one animation frame per advance of the simulated clock.
+    ShadowChoreographer.setPostFrameCallbackDelay(FRAME_MILLIS);
+    activity = Robolectric.setupActivity(Activity.class);
+  }
+
+  @After
+  public void tearDown() {
+    ShadowChoreographer.setPostFrameCallbackDelay(0);
+  }
+
+  @Test
+  public void compareSystems() {
+    // Warm up every system so that the first configuration is not measured cold.
+    for (SpringSource.System system : SYSTEMS) {
+      run(system, CONFIGS[0]);
+    }
+
+    System.out.println(String.format(
+      Locale.US, "%d springs from 0 to %.0f, %d ms frames", SPRINGS, DESTINATION, FRAME_MILLIS));
+    System.out.println(
+      "config   system                step ns  settle ms  frames  rms error  max error  offset");
+
+    for (SpringConfig config : CONFIGS) {
+      double[] reference = reference(config);
+      System.out.println(String.format(
+        Locale.US,
+        "%-8s %-20s  %7s  %9d  %6s  %9s  %9s  %6s",
+        config.name,
+        "reference",
+        "-",
+        settleFrames(reference) * FRAME_MILLIS,
+        "-",
+        "-",
+        "-",
+        "-"));
+
+      for (int i = 0; i < SYSTEMS.length; i++) {
+        Result result = run(SYSTEMS[i], config);
+        TrajectoryError error = error(result.trajectory, result.restFrames, reference);
+        System.out.println(String.format(
+          Locale.US,
+          "%-8s %-20s  %7d  %9d  %6d  %9.4f  %9.4f  %6d",
+          config.name,
+          SYSTEM_NAMES[i],
+          result.stepNanos,
+          settleFrames(result.trajectory) * FRAME_MILLIS,
+          result.restFrames,
+          error.rms,
+          error.max,
+          error.offset));
+      }
+    }
+  }
+
+  private Result run(SpringSource.System system, SpringConfig config) {
+    List<View> views = new ArrayList<>(SPRINGS);
+    MotionRuntime runtime = new MotionRuntime();
+    for (int i = 0; i < SPRINGS; i++) {
+      View view = new View(activity);
+      views.add(view);
+      runtime.addInteraction(
+        new MaterialSpring<View, Float>(
+          View.TRANSLATION_X,
+          new FloatVectorizer(),
+          ReactiveProperty.of(DESTINATION),
+          ReactiveProperty.of(view, View.TRANSLATION_X),
+          ReactiveProperty.of(0f),
+          ReactiveProperty.of(1f),
+          ReactiveProperty.of(config.tension),
+          ReactiveProperty.of(config.friction),
+          system),
+        view);
+    }
+
+    View sampled = views.get(0);
+    double[] trajectory = new double[FRAMES + 1];
+    trajectory[0] = sampled.getTranslationX();
+    long[] frameNanos = new long[FRAMES];
+    int restFrames = 0;
+    for (int frame = 1; frame <= FRAMES; frame++) {
+      long start = cpuTime();
+      Robolectric.getForegroundThreadScheduler().advanceBy(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+      frameNanos[frame - 1] = cpuTime() - start;
+
+      trajectory[frame] = sampled.getTranslationX();
+      if (trajectory[frame] != trajectory[frame - 1]) {
+        restFrames = frame;
+      }
+    }
+    runtime.dispose();
+
+    long activeNanos = 0;
+    for (int frame = 0; frame < restFrames; frame++) {
+      activeNanos += frameNanos[frame];
+    }
+    long stepNanos = restFrames == 0 ? 0 : activeNanos / ((long) restFrames * SPRINGS);
+    return new Result(trajectory, restFrames, stepNanos);
+  }
+
+  /**
+   * Returns the closed-form trajectory of the configuration, sampled once per frame.
+   */
+  private static double[] reference(SpringConfig config) {
+    // The Origami conversions, which DynamicSpringSource also uses.
+    double stiffness = config.tension == 0f ? 0 : (config.tension - 30) * 3.62 + 194;
+    double damping = config.friction == 0f ? 0 : (config.friction - 8) * 3 + 25;
+    double omega = Math.sqrt(stiffness);
+    double zeta = damping / (2 * omega);
+    double displacement = -DESTINATION;
+
+    double[] trajectory = new double[FRAMES + 1];
+    for (int frame = 0; frame <= FRAMES; frame++) {
+      double t = frame * FRAME_MILLIS / 1000.0;
+      double offset;
+      if (zeta < 1) {
+        double omegaD = omega * Math.sqrt(1 - zeta * zeta);
+        offset = Math.exp(-zeta * omega * t) * (displacement * Math.cos(omegaD * t)
+          + zeta * omega * displacement / omegaD * Math.sin(omegaD * t));
+      } else if (zeta == 1) {
+        offset = Math.exp(-omega * t) * (displacement + omega * displacement * t);
+      } else {
+        double root = Math.sqrt(zeta * zeta - 1);
+        double r1 = -omega * (zeta - root);
+        double r2 = -omega * (zeta + root);
+        double b = -r1 * displacement / (r2 - r1);
+        double a = displacement - b;
+        offset = a * Math.exp(r1 * t) + b * Math.exp(r2 * t);
+      }
+      trajectory[frame] = DESTINATION + offset;
+    }
+    return trajectory;
+  }
+
+  /**
+   * Returns the number of frames after which the trajectory stays within {@link #SETTLE_DISTANCE}
+   * of the destination.
+   */
+  private static int settleFrames(double[] trajectory) {
+    for (int frame = trajectory.length - 1; frame >= 0; frame--) {
+      if (Math.abs(trajectory[frame] - DESTINATION) > SETTLE_DISTANCE) {
+        return frame + 1;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Returns the error of the trajectory until it came to rest, at the frame offset that minimizes
+   * the root mean square error. A reference that has not settled within {@link #FRAMES} is
+   * compared over all frames.
+   */
+  private static TrajectoryError error(double[] trajectory, int restFrames, double[] reference) {
+    int frames = Math.min(Math.max(restFrames, settleFrames(reference)), FRAMES);
+    TrajectoryError best = null;
+    for (int offset = 0; offset <= MAX_OFFSET_FRAMES; offset++) {
+      double squares = 0;
+      double max = 0;
+      for (int frame = 0; frame <= frames; frame++) {
+        double expected = reference[Math.max(0, frame - offset)];
+        double difference = Math.abs(trajectory[frame] - expected);
+        squares += difference * difference;
+        max = Math.max(max, difference);
+      }
+      TrajectoryError error = new TrajectoryError(Math.sqrt(squares / (frames + 1)), max, offset);
+      if (best == null || error.rms < best.rms) {
+        best = error;
+      }
+    }
+    return best;
+  }
+
+  private static class SpringConfig {
+
+    private final String name;
+    private final float tension;
+    private final float friction;
+
+    private SpringConfig(String name, float tension, float friction) {
+      this.name = name;
+      this.tension = tension;
+      this.friction = friction;
+    }
+  }
+
+  private static class Result {
+
+    private final double[] trajectory;
+    private final int restFrames;
+    private final long stepNanos;
+
+    private Result(double[] trajectory, int restFrames, long stepNanos) {
+      this.trajectory = trajectory;
+      this.restFrames = restFrames;
+      this.stepNanos = stepNanos;
+    }
+  }
+
+  private static class TrajectoryError {
+
+    private final double rms;
+    private final double max;
+    private final int offset;
+
+    private TrajectoryError(double rms, double max, int offset) {
+      this.rms = rms;
+      this.max = max;
+      this.offset = offset;
+    }
+  }
+}
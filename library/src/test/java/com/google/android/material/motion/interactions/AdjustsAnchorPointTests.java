@@ -0,0 +1,133 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion.interactions;
+
+import android.app.Activity;
+import android.view.MotionEvent;
+import android.view.MotionEvent.PointerCoords;
+import android.view.MotionEvent.PointerProperties;
+import android.view.View;
+
+import com.google.android.material.motion.MotionRuntime;
+import com.google.android.material.motion.gestures.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class AdjustsAnchorPointTests {
+
+  private static final int MOVE_EVENTS = 10;
+
+  private Activity activity;
+
+  @Before
+  public void setUp() {
+    activity = Robolectric.setupActivity(Activity.class);
+  }
+
+  @Test
+  public void coalescedWritesMatchImmediateWrites() {
+    View immediate = manipulate(MotionRuntime.WriteMode.IMMEDIATE);
+    View coalesced = manipulate(MotionRuntime.WriteMode.COALESCED);
+
+    assertThat(coalesced.getPivotX()).isWithin(0.01f).of(immediate.getPivotX());
+    assertThat(coalesced.getPivotY()).isWithin(0.01f).of(immediate.getPivotY());
+    assertThat(coalesced.getTranslationX()).isWithin(0.01f).of(immediate.getTranslationX());
+    assertThat(coalesced.getTranslationY()).isWithin(0.01f).of(immediate.getTranslationY());
+  }
+
+  /**
+   * Pinches and rotates a view with the given write mode, letting a frame pass after every event,
+   * and returns the view.
+   */
+  private View manipulate(@MotionRuntime.WriteMode int mode) {
+    MotionRuntime runtime = new MotionRuntime();
+    runtime.setWriteMode(mode);
+
+    View view = new View(activity);
+    view.layout(0, 0, 300, 300);
+    Pinchable pinchable = new Pinchable();
+    Rotatable rotatable = new Rotatable();
+    runtime.addInteraction(pinchable, view);
+    runtime.addInteraction(rotatable, view);
+    runtime.addInteraction(new AdjustsAnchorPoint(pinchable, rotatable), view);
+
+    for (MotionEvent event : pinchAndRotate()) {
+      view.dispatchTouchEvent(event);
+      ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+
+    runtime.dispose();
+    return view;
+  }
+
+  /**
+   * Returns a gesture in which the second finger circles around the first while moving away from
+   * it, so that the centroid moves with every event.
+   */
+  private static List<MotionEvent> pinchAndRotate() {
+    List<MotionEvent> events = new ArrayList<>();
+    events.add(MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, 100f, 100f, 0));
+    events.add(twoPointerEvent(
+      8,
+      MotionEvent.ACTION_POINTER_DOWN | (1 << MotionEvent.ACTION_POINTER_INDEX_SHIFT),
+      200f,
+      100f));
+    for (int i = 1; i <= MOVE_EVENTS; i++) {
+      double angle = Math.PI / 2 * i / MOVE_EVENTS;
+      float radius = 100f + i * 10f;
+      events.add(twoPointerEvent(
+        8 + i * 8,
+        MotionEvent.ACTION_MOVE,
+        100f + (float) (radius * Math.cos(angle)),
+        100f + (float) (radius * Math.sin(angle))));
+    }
+    return events;
+  }
+
+  /**
+   * Returns an event with the first finger at (100, 100) and the second finger at (x, y).
+   */
+  private static MotionEvent twoPointerEvent(long eventTime, int action, float x, float y) {
+    PointerProperties[] properties = new PointerProperties[2];
+    PointerCoords[] coords = new PointerCoords[2];
+    for (int i = 0; i < 2; i++) {
+      properties[i] = new PointerProperties();
+      properties[i].id = i;
+      properties[i].toolType = MotionEvent.TOOL_TYPE_FINGER;
+      coords[i] = new PointerCoords();
+    }
+    coords[0].x = 100f;
+    coords[0].y = 100f;
+    coords[1].x = x;
+    coords[1].y = y;
+
+    return MotionEvent.obtain(
+      0, eventTime, action, 2, properties, coords, 0, 0, 1f, 1f, 0, 0, 0, 0);
+  }
+}
@@ -15,12 +15,14 @@
  */
 package com.google.android.material.motion.operators;
 
+import android.graphics.PointF;
 import android.support.annotation.NonNull;
 
 import com.google.android.indefinite.observable.IndefiniteObservable;
 import com.google.android.material.motion.MotionObservable;
 import com.google.android.material.motion.MotionObserver;
 import com.google.android.material.motion.ReactiveProperty;
+import com.google.android.material.motion.ReusedPointF;
 import com.google.android.material.motion.gestures.BuildConfig;
 import com.google.android.material.motion.testing.TrackingMotionObserver;
 
@@ -29,7 +31,9 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static com.google.android.material.motion.operators.Dedupe.dedupe;
 import static com.google.common.truth.Truth.assertThat;
@@ -61,6 +65,40 @@ public class DedupeTests {
     assertThat(tracker.values).isEqualTo(Arrays.asList(10, 5, 2, 10));
   }
 
+  @Test
+  public void testComparesReusedPointsByValue() {
+    ReusedPointF.setEnabled(true);
+    try {
+      final float[] input = {1f, 1f, 2f, 3f, 3f};
+      final PointF scratch = new PointF();
+      MotionObservable<PointF> source =
+        new MotionObservable<>(new IndefiniteObservable.Connector<MotionObserver<PointF>>() {
+          @NonNull
+          @Override
+          public IndefiniteObservable.Disconnector connect(MotionObserver<PointF> observer) {
+            for (float x : input) {
+              observer.next(ReusedPointF.obtain(scratch, x, 0f));
+            }
+            return IndefiniteObservable.Disconnector.NO_OP;
+          }
+        });
+
+      final List<Float> received = new ArrayList<>();
+      source
+        .compose(Dedupe.<PointF>dedupe())
+        .subscribe(new MotionObserver.SimpleMotionObserver<PointF>() {
+          @Override
+          public void next(PointF value) {
+            received.add(value.x);
+          }
+        });
+
+      assertThat(received).isEqualTo(Arrays.asList(1f, 2f, 3f));
+    } finally {
+      ReusedPointF.setEnabled(false);
+    }
+  }
+
   @NonNull
   private MotionObservable<Integer> intSource(int[] input) {
 
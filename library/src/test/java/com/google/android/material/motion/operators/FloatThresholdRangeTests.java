@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion.operators;
+
+import com.google.android.material.motion.FloatMotionObservable;
+import com.google.android.material.motion.ReactiveProperty;
+import com.google.android.material.motion.gestures.BuildConfig;
+import com.google.android.material.motion.operators.Threshold.ThresholdSide;
+import com.google.android.material.motion.testing.TrackingMotionObserver;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class FloatThresholdRangeTests {
+
+  @Test
+  public void testEvents() {
+    TrackingMotionObserver<Integer> tracker = new TrackingMotionObserver<>();
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+    FloatMotionObservable.from(property)
+      .compose(Threshold.floatThresholdRange(0f, 10f))
+      .subscribe(tracker);
+
+    float[] values = {10f, 15f, 8f, -15f, -5f};
+    for (float v : values) {
+      property.write(v);
+    }
+
+    assertThat(tracker.values).isEqualTo(Arrays.asList(
+      ThresholdSide.WITHIN,
+      ThresholdSide.WITHIN,
+      ThresholdSide.ABOVE,
+      ThresholdSide.WITHIN,
+      ThresholdSide.BELOW,
+      ThresholdSide.BELOW
+    ));
+  }
+
+  @Test
+  public void testHysteresis() {
+    TrackingMotionObserver<Integer> tracker = new TrackingMotionObserver<>();
+    ReactiveProperty<Float> property = ReactiveProperty.of(-5f);
+    FloatMotionObservable.from(property)
+      .compose(Threshold.floatThreshold(0f, 2f))
+      .subscribe(tracker);
+
+    float[] values = {1f, 3f, -1f, -3f};
+    for (float v : values) {
+      property.write(v);
+    }
+
+    assertThat(tracker.values).isEqualTo(Arrays.asList(
+      ThresholdSide.BELOW,
+      ThresholdSide.BELOW,
+      ThresholdSide.ABOVE,
+      ThresholdSide.ABOVE,
+      ThresholdSide.BELOW
+    ));
+  }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2016-present The Material Motion Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.motion.sources;
+
+import android.app.Activity;
+import android.graphics.Color;
+import android.support.animation.SpringAnimation;
+import android.support.animation.SpringForce;
+import android.util.Property;
+import android.view.View;
+
+import com.google.android.material.motion.MotionObserver.SimpleMotionObserver;
+import com.google.android.material.motion.MotionRuntime;
+import com.google.android.material.motion.ReactiveProperty;
+import com.google.android.material.motion.gestures.BuildConfig;
+import com.google.android.material.motion.interactions.MaterialSpring;
+import com.google.android.material.motion.properties.ViewProperties;
+import com.google.android.material.motion.springs.FloatVectorizer;
+import com.google.android.material.motion.springs.RgbVectorizer;
+import com.google.android.material.motion.springs.TypeVectorizer;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowChoreographer;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DynamicSpringSourceTests {
+
+  private static final int FRAME_MILLIS = 16;
+  private static final int FRAMES = 120;
+
+  private static final int UPDATES = 1000;
+
+  private MotionRuntime runtime;
+  private DynamicSpringSource<?> source;
+
+  /**
+   * Creates dynamic spring sources and keeps the most recent one, so that its animations can be
+   * inspected.
+   */
+  private final SpringSource.System system = new SpringSource.System() {
+    @Override
+    public <T> SpringSource<T> create(MaterialSpring<?, T> spring) {
+      DynamicSpringSource<T> created = new DynamicSpringSource<>(spring);
+      source = created;
+      return created;
+    }
+  };
+
+  @Before
+  public void setUp() {
+    ShadowChoreographer.setPostFrameCallbackDelay(FRAME_MILLIS);
+    runtime = new MotionRuntime();
+  }
+
+  @After
+  public void tearDown() {
+    runtime.dispose();
+    ShadowChoreographer.setPostFrameCallbackDelay(0);
+  }
+
+  @Test
+  public void animatesFloatPropertyOfAnyObject() {
+    Target target = new Target();
+    runtime.addInteraction(
+      createSpring(Target.VALUE, new FloatVectorizer(), 100f, 0f, 0f), target);
+
+    advanceFrames(FRAMES);
+
+    assertThat(target.value).isWithin(1f).of(100f);
+  }
+
+  @Test
+  public void animatesValueBackedProperty() {
+    ReactiveProperty<Float> property = ReactiveProperty.of(0f);
+    MaterialSpring<View, Float> spring =
+      createSpring(View.ALPHA, new FloatVectorizer(), 100f, 0f, 0f);
+    runtime.write(DynamicSpringSource.SYSTEM.create(spring).getStream(), property);
+
+    advanceFrames(FRAMES);
+
+    assertThat(property.read()).isWithin(1f).of(100f);
+  }
+
+  @Test
+  public void animatesColorChannels() {
+    View view = new View(Robolectric.setupActivity(Activity.class));
+    runtime.addInteraction(
+      createSpring(
+        ViewProperties.BACKGROUND_COLOR, new RgbVectorizer(), Color.RED, Color.BLUE, 0),
+      view);
+
+    advanceFrames(FRAMES);
+
+    assertThat(ViewProperties.BACKGROUND_COLOR.get(view)).isEqualTo(Color.RED);
+  }
+
+  @Test
+  public void writesVectorizedValueOncePerFrame() {
+    ReactiveProperty<Integer> property = ReactiveProperty.of(Color.BLUE);
+    MaterialSpring<View, Integer> spring = createSpring(
+      ViewProperties.BACKGROUND_COLOR, new RgbVectorizer(), Color.RED, Color.BLUE, 0);
+    runtime.write(DynamicSpringSource.SYSTEM.create(spring).getStream(), property);
+
+    final int[] writes = new int[1];
+    property.subscribe(new SimpleMotionObserver<Integer>() {
+      @Override
+      public void next(Integer value) {
+        writes[0]++;
+      }
+    });
+
+    for (int frame = 0; frame < FRAMES; frame++) {
+      int before = writes[0];
+      advanceFrames(1);
+      assertThat(writes[0] - before).isAtMost(1);
+    }
+    assertThat(property.read()).isEqualTo(Color.RED);
+  }
+
+  @Test
+  public void retargetsRunningAnimation() {
+    Target target = new Target();
+    MaterialSpring<Target, Float> spring =
+      createSpring(Target.VALUE, new FloatVectorizer(), 100f, 0f, 0f);
+    runtime.addInteraction(spring, target);
+    advanceFrames(2);
+
+    SpringAnimation animation = source.animationOf(target, Target.VALUE);
+    assertThat(animation).isNotNull();
+    assertThat(animation.isRunning()).isTrue();
+
+    spring.destination.write(50f);
+    advanceFrames(FRAMES);
+
+    assertThat(source.animationOf(target, Target.VALUE)).isSameAs(animation);
+    assertThat(target.value).isWithin(1f).of(50f);
+  }
+
+  @Test
+  public void updatesForceOfRunningAnimation() {
+    Target target = new Target();
+    MaterialSpring<Target, Float> spring =
+      createSpring(Target.VALUE, new FloatVectorizer(), 100f, 0f, 0f);
+    runtime.addInteraction(spring, target);
+    advanceFrames(2);
+
+    SpringAnimation animation = source.animationOf(target, Target.VALUE);
+    SpringForce force = animation.getSpring();
+    spring.tension.write(500f);
+    spring.friction.write(20f);
+
+    float stiffness = (500f - 30f) * 3.62f + 194f;
+    float friction = (20f - 8f) * 3f + 25f;
+    assertThat(animation.getSpring()).isSameAs(force);
+    assertThat(force.getStiffness()).isWithin(0.01f).of(stiffness);
+    assertThat(force.getDampingRatio())
+      .isWithin(0.001f)
+      .of((float) (friction / (2 * Math.sqrt(stiffness))));
+  }
+
+  @Test
+  public void rereadsInitialValueAfterStop() {
+    Target target = new Target();
+    MaterialSpring<Target, Float> spring =
+      createSpring(Target.VALUE, new FloatVectorizer(), 100f, 0f, 0f);
+    runtime.addInteraction(spring, target);
+    advanceFrames(FRAMES);
+
+    spring.enabled.write(false);
+    assertThat(source.animationOf(target, Target.VALUE)).isNull();
+    spring.initialValue.write(-50f);
+    spring.enabled.write(true);
+    advanceFrames(1);
+
+    assertThat(target.value).isLessThan(0f);
+  }
+
+  @Test
+  public void rereadsInitialVelocityAfterStop() {
+    Target target = new Target();
+    MaterialSpring<Target, Float> spring =
+      createSpring(Target.VALUE, new FloatVectorizer(), 100f, 0f, 0f);
+    runtime.addInteraction(spring, target);
+    advanceFrames(FRAMES);
+
+    // Starting at the destination, the spring only moves past it if the new velocity is read.
+    spring.enabled.write(false);
+    spring.initialValue.write(100f);
+    spring.initialVelocity.write(2000f);
+    spring.enabled.write(true);
+    advanceFrames(3);
+
+    assertThat(target.value).isGreaterThan(100f);
+  }
+
+  @Test
+  public void retargetingDoesNotAllocate() {
+    java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+    Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported());
+    allocations.setThreadAllocatedMemoryEnabled(true);
+
+    Target target = new Target();
+    MaterialSpring<Target, Float> spring =
+      createSpring(Target.VALUE, new FloatVectorizer(), 100f, 0f, 0f);
+    runtime.addInteraction(spring, target);
+    advanceFrames(1);
+
+    // Destinations are boxed up front, so that only the source's own allocations are measured.
+    Float[] destinations = new Float[UPDATES];
+    for (int i = 0; i < UPDATES; i++) {
+      destinations[i] = 200f + i;
+    }
+    for (int i = 0; i < UPDATES; i++) {
+      spring.destination.write(destinations[i]);
+    }
+
+    long threadId = Thread.currentThread().getId();
+    long before = allocations.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < UPDATES; i++) {
+      spring.destination.write(destinations[i]);
+    }
+    long after = allocations.getThreadAllocatedBytes(threadId);
+
+    assertThat(source.animationOf(target, Target.VALUE).isRunning()).isTrue();
+    assertWithMessage("Bytes allocated per destination update")
+      .that((after - before) / UPDATES)
+      .isEqualTo(0L);
+  }
+
+  private <O, T> MaterialSpring<O, T> createSpring(
+    Property<O, T> property,
+    TypeVectorizer<T> vectorizer,
+    T destination,
+    T initialValue,
+    T initialVelocity) {
+    return new MaterialSpring<>(
+      property,
+      vectorizer,
+      destination,
+      initialValue,
+      initialVelocity,
+      1f,
+      MaterialSpring.DEFAULT_TENSION,
+      MaterialSpring.DEFAULT_FRICTION,
+      system);
+  }
+
+  private static void advanceFrames(int frames) {
+    for (int i = 0; i < frames; i++) {
+      Robolectric.getForegroundThreadScheduler().advanceBy(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static class Target {
+
+    private static final Property<Target, Float> VALUE =
+      new Property<Target, Float>(Float.class, "value") {
+
+        @Override
+        public Float get(Target object) {
+          return object.value;
+        }
+
+        @Override
+        public void set(Target object, Float value) {
+          object.value = value;
+        }
+      };
+
+    private float value;
+  }
+}
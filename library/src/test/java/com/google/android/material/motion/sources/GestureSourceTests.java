@@ -124,6 +124,44 @@ public class GestureSourceTests {
     assertThat(interaction.state.read()).isEqualTo(AT_REST);
   }
 
+  @Test
+  public void sharesOneConnectionBetweenSubscribers() {
+    TrackingMotionObserver<SimulatedGestureRecognizer> first = new TrackingMotionObserver<>();
+    TrackingMotionObserver<SimulatedGestureRecognizer> second = new TrackingMotionObserver<>();
+    TrackingMotionObserver<Integer> states = new TrackingMotionObserver<>();
+
+    GestureInteraction<SimulatedGestureRecognizer, ?> interaction = createInteraction(gesture);
+    interaction.state.subscribe(states);
+    MotionObservable<SimulatedGestureRecognizer> stream = GestureSource.from(interaction);
+    stream.subscribe(first);
+    stream.subscribe(second);
+
+    gesture.setState(BEGAN);
+    gesture.setState(CHANGED);
+
+    assertThat(first.values).hasSize(3);
+    assertThat(second.values).hasSize(3);
+    assertThat(states.values).isEqualTo(Arrays.asList(AT_REST, AT_REST, ACTIVE));
+  }
+
+  @Test
+  public void reconnectsAfterLastSubscriberLeaves() {
+    TrackingMotionObserver<SimulatedGestureRecognizer> tracker = new TrackingMotionObserver<>();
+
+    GestureInteraction<SimulatedGestureRecognizer, ?> interaction = createInteraction(gesture);
+    MotionObservable<SimulatedGestureRecognizer> stream = GestureSource.from(interaction);
+    stream.subscribe().unsubscribe();
+
+    gesture.setState(BEGAN);
+    assertThat(interaction.state.read()).isEqualTo(AT_REST);
+
+    stream.subscribe(tracker);
+    assertThat(interaction.state.read()).isEqualTo(ACTIVE);
+
+    gesture.setState(CHANGED);
+    assertThat(tracker.values).hasSize(2);
+  }
+
   private GestureInteraction<SimulatedGestureRecognizer, ?> createInteraction(
     SimulatedGestureRecognizer gesture) {
     return new GestureInteraction<SimulatedGestureRecognizer, Object>(gesture) {